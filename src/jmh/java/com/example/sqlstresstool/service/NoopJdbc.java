@@ -0,0 +1,82 @@
+package com.example.sqlstresstool.service;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+
+/**
+ * In-process JDBC stand-in that answers every call immediately: queries return {@code rows} rows of
+ * an INT and a VARCHAR column, updates report one row, batches one row per entry.
+ * Built from dynamic proxies, so each JDBC call carries a few ns of dispatch; {@link RunnerBenchmark#rawJdbc}
+ * measures that cost on its own so it can be subtracted from the runner's numbers.
+ */
+final class NoopJdbc {
+
+    private static final ClassLoader LOADER = NoopJdbc.class.getClassLoader();
+    private static final int[] BATCH_COUNTS = {1};
+
+    private NoopJdbc() {
+    }
+
+    static DataSource dataSource(int rows) {
+        Connection connection = connection(rows);
+        return proxy(DataSource.class, (p, m, a) -> m.getName().equals("getConnection") ? connection : defaultValue(m));
+    }
+
+    private static Connection connection(int rows) {
+        Statement statement = proxy(Statement.class, statementHandler(rows));
+        PreparedStatement prepared = proxy(PreparedStatement.class, statementHandler(rows));
+        return proxy(Connection.class, (p, m, a) -> switch (m.getName()) {
+            case "createStatement" -> statement;
+            case "prepareStatement" -> prepared;
+            case "getAutoCommit" -> true;
+            default -> defaultValue(m);
+        });
+    }
+
+    private static InvocationHandler statementHandler(int rows) {
+        ResultSetMetaData meta = proxy(ResultSetMetaData.class, (p, m, a) -> switch (m.getName()) {
+            case "getColumnCount" -> 2;
+            case "getColumnType" -> (Integer) a[0] == 1 ? Types.INTEGER : Types.VARCHAR;
+            case "getColumnLabel", "getColumnName" -> "c" + a[0];
+            default -> defaultValue(m);
+        });
+        return (p, m, a) -> switch (m.getName()) {
+            case "executeQuery", "getResultSet" -> resultSet(rows, meta);
+            case "execute" -> true;
+            case "executeUpdate", "getUpdateCount" -> m.getName().equals("executeUpdate") ? 1 : -1;
+            case "executeBatch" -> BATCH_COUNTS;
+            default -> defaultValue(m);
+        };
+    }
+
+    private static ResultSet resultSet(int rows, ResultSetMetaData meta) {
+        int[] row = {0};
+        return proxy(ResultSet.class, (p, m, a) -> switch (m.getName()) {
+            case "next" -> row[0]++ < rows;
+            case "getInt" -> row[0];
+            case "getString", "getObject" -> "value";
+            case "getMetaData" -> meta;
+            default -> defaultValue(m);
+        });
+    }
+
+    private static Object defaultValue(Method m) {
+        Class<?> type = m.getReturnType();
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0d;
+        if (type == float.class) return 0f;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(LOADER, new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.sqlstresstool.service;
+
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-operation recording cost of each sink a worker writes into on the success path, with all
+ * benchmark threads sharing one run the way workers do. Vary contention with {@code -t 1..256}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RecordingBenchmark {
+
+    private static final int MAX_SLOTS = 1024;
+
+    private RunMetrics metrics;
+    private RunMeters meters;
+    private LiveStats live;
+
+    @State(Scope.Thread)
+    public static class Slot {
+        int slot;
+        long nanos;
+
+        @Setup
+        public void setUp(ThreadParams threads) {
+            slot = threads.getThreadIndex() % MAX_SLOTS;
+        }
+
+        long next() {
+            // Spread values over a few hundred microseconds so different buckets are hit
+            nanos = (nanos + 7_919) % 500_000;
+            return nanos;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        metrics = new RunMetrics(MAX_SLOTS, false, false, false, 2, null, null);
+        meters = new RunMeters(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), "bench");
+        meters.bind(Workload.from(StressRequest.defaultRequest(), Path.of("data/csv")));
+        live = new LiveStats(TimeUnit.MILLISECONDS.toNanos(1000), MAX_SLOTS);
+    }
+
+    @Benchmark
+    public void latencyRecorder(Slot s) {
+        metrics.getLatency().recordNanos(s.slot, s.next());
+    }
+
+    @Benchmark
+    public void statementHistogram(Slot s) {
+        metrics.recordStatement(s.slot, s.slot & 1, s.next());
+    }
+
+    @Benchmark
+    public void micrometerTimer(Slot s) {
+        meters.recordSuccess(0, s.next());
+    }
+
+    @Benchmark
+    public void liveStats(Slot s) {
+        live.record(s.slot, System.nanoTime(), s.next());
+    }
+
+    @Benchmark
+    public void inFlightGauge() {
+        meters.begin();
+        meters.end();
+    }
+
+    /** Everything a closed-loop worker records for one successful operation. */
+    @Benchmark
+    public void allSinks(Slot s) {
+        long n = s.next();
+        meters.begin();
+        metrics.getAcquire().recordNanos(s.slot, n >> 3);
+        metrics.getExecute().recordNanos(s.slot, n >> 1);
+        meters.recordAcquire(n >> 3);
+        meters.end();
+        metrics.getLatency().recordNanos(s.slot, n);
+        metrics.recordStatement(s.slot, 0, n);
+        meters.recordSuccess(0, n);
+        live.record(s.slot, System.nanoTime(), n);
+    }
+}
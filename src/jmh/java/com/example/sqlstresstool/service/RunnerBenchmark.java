@@ -0,0 +1,111 @@
+package com.example.sqlstresstool.service;
+
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The runner's own ceiling: whole runs of {@link SqlRunnerService} against {@link NoopJdbc}, so every
+ * nanosecond measured is dispatch, recording and result handling in the tool itself.
+ * {@link #closedLoop} reports wall-clock ns per operation across all workers (the ceiling in ops/s is
+ * 1e9 divided by it; per-worker overhead is roughly it times {@code concurrency}); {@link #timed}
+ * reports its ceiling directly as the {@code operations} rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class RunnerBenchmark {
+
+    static final int OPS_PER_RUN = 50_000;
+
+    @Param({"1", "4", "16", "64", "256"})
+    public int concurrency;
+
+    @Param({"NONE", "SCALAR", "ROWS", "DRAIN"})
+    public ResultMode resultMode;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public EngineType engine;
+
+    @Param("10")
+    public int rows;
+
+    private DataSource dataSource;
+    private SqlRunnerService runner;
+    private StressRequest request;
+    private StressRequest timedRequest;
+
+    /** Operations completed by {@link #timed}, reported by JMH as a rate. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Completed {
+        public long operations;
+    }
+
+    @Setup
+    public void setUp() {
+        dataSource = NoopJdbc.dataSource(rows);
+        runner = new SqlRunnerService(dataSource, new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), Path.of("data/csv"));
+        request = StressRequest.defaultRequest();
+        request.setSqlText("SELECT id, name FROM dbo.Items");
+        request.setResultMode(resultMode);
+        request.setMaxRows(5);
+        request.setConcurrency(concurrency);
+        request.setEngine(engine);
+        request.setLoadMode(LoadMode.CLOSED_LOOP);
+        request.setIterations(OPS_PER_RUN);
+        timedRequest = request.copy();
+        timedRequest.setLoadMode(LoadMode.TIMED);
+        timedRequest.setDurationSeconds(1);
+    }
+
+    /**
+     * Whole closed-loop run: one long-lived worker per slot claiming {@code OPS_PER_RUN} operations from a shared
+     * counter, so the cost includes worker start-up and the final drain as well as the per-operation path.
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS_PER_RUN)
+    public StressResult closedLoop() {
+        return runner.run(request);
+    }
+
+    /** Long-lived workers looping for one second; read the {@code operations} counter for ops/s. */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public StressResult timed(Completed completed) {
+        StressResult result = runner.run(timedRequest);
+        completed.operations += result.getTotalIterations();
+        return result;
+    }
+
+    /** The same JDBC calls with no runner around them: the cost of the no-op driver itself. */
+    @Benchmark
+    public void rawJdbc(Blackhole bh) throws Exception {
+        try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement()) {
+            st.setQueryTimeout(30);
+            if (resultMode == ResultMode.NONE) {
+                bh.consume(st.execute(request.getSqlText()));
+                return;
+            }
+            try (ResultSet rs = st.executeQuery(request.getSqlText())) {
+                while (rs.next()) {
+                    bh.consume(rs.getInt(1));
+                    bh.consume(rs.getString(2));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.sqlstresstool.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Concurrency limit for {@link LoadMode#ADAPTIVE} runs, in the style of the gradient limit from Netflix
+ * concurrency-limits. Every 100ms the mean latency of the window is compared with the lowest window latency
+ * seen: while it stays within {@code TOLERANCE} of it the limit grows by a small queue allowance, beyond that
+ * it shrinks in proportion. Throttling errors and timeouts cut the limit multiplicatively (the AIMD decrease).
+ * Workers whose slot is at or above the limit idle until it rises again.
+ */
+public class AdaptiveConcurrency {
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double QUEUE_ALLOWANCE = 4;
+    private static final double BACKOFF = 0.75;
+    // The baseline is a minimum, allowed to creep up ~1%/s so a lasting shift is eventually accepted.
+    // A moving average would follow the queueing it is meant to detect and let the limit drift upwards.
+    private static final double BASELINE_DRIFT = 0.001;
+    private static final int INITIAL_LIMIT = 4;
+
+    private final int maxLimit;
+    private final Thread controller;
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder overloads = new LongAdder();
+    private volatile boolean running = true;
+    private volatile int limit;
+
+    // Controller-thread state
+    private double estimate;
+    private double baselineNanos;
+    private final List<Integer> windowLimits = new ArrayList<>();
+    private final List<Long> windowCompleted = new ArrayList<>();
+
+    private AdaptiveConcurrency(int maxLimit) {
+        this.maxLimit = maxLimit;
+        this.estimate = Math.min(maxLimit, INITIAL_LIMIT);
+        this.limit = (int) estimate;
+        this.controller = new Thread(this::controlLoop, "adaptive-concurrency");
+        controller.setDaemon(true);
+        controller.start();
+    }
+
+    public static AdaptiveConcurrency start(int maxLimit) {
+        return new AdaptiveConcurrency(Math.max(1, maxLimit));
+    }
+
+    public boolean permits(int workerSlot) {
+        return workerSlot < limit;
+    }
+
+    public void onSuccess(long nanos) {
+        latencyNanos.add(nanos);
+        completed.increment();
+    }
+
+    public void onOverload() {
+        overloads.increment();
+    }
+
+    private void controlLoop() {
+        long next = System.nanoTime() + WINDOW_NANOS;
+        while (running) {
+            LockSupport.parkNanos(next - System.nanoTime());
+            if (System.nanoTime() < next) continue;
+            next += WINDOW_NANOS;
+            update();
+        }
+    }
+
+    private void update() {
+        long n = completed.sumThenReset();
+        long sum = latencyNanos.sumThenReset();
+        long dropped = overloads.sumThenReset();
+        synchronized (this) {
+            windowLimits.add(limit);
+            windowCompleted.add(n);
+        }
+        if (dropped > 0) {
+            estimate = Math.max(1, estimate * BACKOFF);
+        } else if (n > 0) {
+            double windowNanos = (double) sum / n;
+            baselineNanos = baselineNanos == 0 ? windowNanos : Math.min(windowNanos, baselineNanos * (1 + BASELINE_DRIFT));
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * baselineNanos / windowNanos));
+            double target = estimate * gradient + QUEUE_ALLOWANCE;
+            estimate = estimate * (1 - SMOOTHING) + target * SMOOTHING;
+        }
+        estimate = Math.max(1, Math.min(maxLimit, estimate));
+        limit = (int) Math.round(estimate);
+    }
+
+    /** Stops the controller and reports what it converged on over the second half of the run. */
+    public void finish(StressResult res) {
+        running = false;
+        LockSupport.unpark(controller);
+        try {
+            controller.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Locked only after the join, as update() takes the same lock; a controller left running by an
+        // interrupted join may still be appending, so the windows are copied
+        List<Integer> windowLimits;
+        List<Long> windowCompleted;
+        synchronized (this) {
+            windowLimits = new ArrayList<>(this.windowLimits);
+            windowCompleted = new ArrayList<>(this.windowCompleted);
+        }
+        int windows = windowLimits.size();
+        int from = windows / 2;
+        long limitSum = 0;
+        long ops = 0;
+        for (int i = from; i < windows; i++) {
+            limitSum += windowLimits.get(i);
+            ops += windowCompleted.get(i);
+        }
+        int counted = windows - from;
+        List<Integer> perSecond = new ArrayList<>();
+        int windowsPerSecond = (int) (TimeUnit.SECONDS.toNanos(1) / WINDOW_NANOS);
+        for (int i = windowsPerSecond - 1; i < windows; i += windowsPerSecond) {
+            perSecond.add(windowLimits.get(i));
+        }
+        res.setSustainableConcurrency(counted > 0 ? (double) limitSum / counted : limit);
+        res.setSustainableThroughput(counted > 0 ? ops * 1e9 / (counted * WINDOW_NANOS) : 0);
+        res.setConcurrencyLimits(perSecond);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.sqlstresstool.service;
+
+import java.util.List;
+
+/** An agent's view of its part of a distributed run, polled by the coordinator. */
+public class AgentReport {
+    private String id;
+    private RunJobStatus status;
+    private String failureMessage;
+    private String startTime;
+    private String finishTime;
+    private long durationMs;
+    private long successCount;
+    private long errorCount;
+    private boolean cancelled;
+    private HistogramSnapshot histogram;
+    private List<HistogramSnapshot> phases;
+    private long lateCount;
+    private double maxLagMs;
+    private HistogramSnapshot serviceHistogram;
+    private List<ErrorCount> errorCodes;
+    private long retries;
+    private Double sustainableConcurrency;
+    private Double sustainableThroughput;
+    private List<String> errorSamples;
+    private List<List<String>> sampleRows;
+    private List<LiveSnapshot> snapshots;
+
+    /** The agent's progress plus the live snapshots it published after the first {@code since}. */
+    public static AgentReport of(RunJob job, long since) {
+        AgentReport r = of(job);
+        r.snapshots = job.getSnapshotsSince(since);
+        return r;
+    }
+
+    public static AgentReport of(RunJob job) {
+        AgentReport r = new AgentReport();
+        r.id = job.getId();
+        r.status = job.getStatus();
+        r.failureMessage = job.getFailureMessage();
+        StressResult result = job.getResult();
+        if (result != null) {
+            r.startTime = result.getStartTime();
+            r.finishTime = result.getFinishTime();
+            r.durationMs = result.getDurationMs();
+            r.successCount = result.getSuccessCount();
+            r.errorCount = result.getErrorCount();
+            r.cancelled = result.isCancelled();
+            r.histogram = result.getHistogram() == null ? null : result.getHistogram().snapshot();
+            // Acquire, execute and fetch, in the order the runner reports them
+            r.phases = result.getPhases() == null ? null
+                    : result.getPhases().stream().map(p -> p.getHistogram().snapshot()).toList();
+            r.lateCount = result.getLateCount();
+            r.maxLagMs = result.getMaxLagMs();
+            r.serviceHistogram = result.getServiceHistogram() == null ? null : result.getServiceHistogram().snapshot();
+            r.errorCodes = result.getErrorCodes();
+            r.retries = result.getRetries();
+            r.sustainableConcurrency = result.getSustainableConcurrency();
+            r.sustainableThroughput = result.getSustainableThroughput();
+            r.errorSamples = result.getErrorSamples();
+            r.sampleRows = result.getSampleRows();
+        }
+        return r;
+    }
+
+    public boolean isFinished() {
+        return status == RunJobStatus.COMPLETED || status == RunJobStatus.CANCELLED || status == RunJobStatus.FAILED;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public RunJobStatus getStatus() { return status; }
+    public void setStatus(RunJobStatus status) { this.status = status; }
+
+    public String getFailureMessage() { return failureMessage; }
+    public void setFailureMessage(String failureMessage) { this.failureMessage = failureMessage; }
+
+    public String getStartTime() { return startTime; }
+    public void setStartTime(String startTime) { this.startTime = startTime; }
+
+    public String getFinishTime() { return finishTime; }
+    public void setFinishTime(String finishTime) { this.finishTime = finishTime; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public long getSuccessCount() { return successCount; }
+    public void setSuccessCount(long successCount) { this.successCount = successCount; }
+
+    public long getErrorCount() { return errorCount; }
+    public void setErrorCount(long errorCount) { this.errorCount = errorCount; }
+
+    public boolean isCancelled() { return cancelled; }
+    public void setCancelled(boolean cancelled) { this.cancelled = cancelled; }
+
+    public HistogramSnapshot getHistogram() { return histogram; }
+    public void setHistogram(HistogramSnapshot histogram) { this.histogram = histogram; }
+
+    public List<HistogramSnapshot> getPhases() { return phases; }
+    public void setPhases(List<HistogramSnapshot> phases) { this.phases = phases; }
+
+    public long getLateCount() { return lateCount; }
+    public void setLateCount(long lateCount) { this.lateCount = lateCount; }
+
+    public double getMaxLagMs() { return maxLagMs; }
+    public void setMaxLagMs(double maxLagMs) { this.maxLagMs = maxLagMs; }
+
+    public HistogramSnapshot getServiceHistogram() { return serviceHistogram; }
+    public void setServiceHistogram(HistogramSnapshot serviceHistogram) { this.serviceHistogram = serviceHistogram; }
+
+    public List<ErrorCount> getErrorCodes() { return errorCodes; }
+    public void setErrorCodes(List<ErrorCount> errorCodes) { this.errorCodes = errorCodes; }
+
+    public long getRetries() { return retries; }
+    public void setRetries(long retries) { this.retries = retries; }
+
+    public Double getSustainableConcurrency() { return sustainableConcurrency; }
+    public void setSustainableConcurrency(Double sustainableConcurrency) { this.sustainableConcurrency = sustainableConcurrency; }
+
+    public Double getSustainableThroughput() { return sustainableThroughput; }
+    public void setSustainableThroughput(Double sustainableThroughput) { this.sustainableThroughput = sustainableThroughput; }
+
+    public List<String> getErrorSamples() { return errorSamples; }
+    public void setErrorSamples(List<String> errorSamples) { this.errorSamples = errorSamples; }
+
+    public List<List<String>> getSampleRows() { return sampleRows; }
+    public void setSampleRows(List<List<String>> sampleRows) { this.sampleRows = sampleRows; }
+
+    public List<LiveSnapshot> getSnapshots() { return snapshots; }
+    public void setSnapshots(List<LiveSnapshot> snapshots) { this.snapshots = snapshots; }
+}
@@ -0,0 +1,45 @@
+package com.example.sqlstresstool.service;
+
+/** Per-agent row of a distributed run's result. */
+public class AgentResult {
+    private String url;
+    private String status;
+    private String share;
+    private long successCount;
+    private long errorCount;
+    private long durationMs;
+    private double achievedRate;
+    private double p50Ms;
+    private double p99Ms;
+    private String message;
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getShare() { return share; }
+    public void setShare(String share) { this.share = share; }
+
+    public long getSuccessCount() { return successCount; }
+    public void setSuccessCount(long successCount) { this.successCount = successCount; }
+
+    public long getErrorCount() { return errorCount; }
+    public void setErrorCount(long errorCount) { this.errorCount = errorCount; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public double getAchievedRate() { return achievedRate; }
+    public void setAchievedRate(double achievedRate) { this.achievedRate = achievedRate; }
+
+    public double getP50Ms() { return p50Ms; }
+    public void setP50Ms(double p50Ms) { this.p50Ms = p50Ms; }
+
+    public double getP99Ms() { return p99Ms; }
+    public void setP99Ms(double p99Ms) { this.p99Ms = p99Ms; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,21 @@
+package com.example.sqlstresstool.service;
+
+/** What a coordinator sends an agent: its share of the load and the wall-clock time to start it. */
+public class AgentRunRequest {
+    private StressRequest request;
+    private long startAtEpochMs;
+
+    public AgentRunRequest() {
+    }
+
+    public AgentRunRequest(StressRequest request, long startAtEpochMs) {
+        this.request = request;
+        this.startAtEpochMs = startAtEpochMs;
+    }
+
+    public StressRequest getRequest() { return request; }
+    public void setRequest(StressRequest request) { this.request = request; }
+
+    public long getStartAtEpochMs() { return startAtEpochMs; }
+    public void setStartAtEpochMs(long startAtEpochMs) { this.startAtEpochMs = startAtEpochMs; }
+}
@@ -0,0 +1,68 @@
+package com.example.sqlstresstool.service;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Captures the load generator's own CPU, allocation and GC cost between start and finish,
+ * so a run can show whether the client rather than the database was the bottleneck.
+ * CPU, allocation and GC are process-wide, so runs at the same time share their figures.
+ */
+public class ClientResourceMonitor {
+
+    private final long cpuNanos;
+    private final long allocatedBytes;
+    private final long gcTimeMs;
+
+    private ClientResourceMonitor() {
+        this.cpuNanos = processCpuNanos();
+        this.allocatedBytes = allocatedBytes();
+        this.gcTimeMs = gcTimeMs();
+    }
+
+    public static ClientResourceMonitor start() {
+        return new ClientResourceMonitor();
+    }
+
+    /** The peak thread count comes from the run's engines; the JVM-wide peak would mix in other jobs. */
+    public ClientResourceUsage finish(long wallMs, int peakPlatformThreads) {
+        ClientResourceUsage usage = new ClientResourceUsage();
+        long cpuMs = Math.max(0, processCpuNanos() - cpuNanos) / 1_000_000;
+        int cores = Runtime.getRuntime().availableProcessors();
+        usage.setCpuTimeMs(cpuMs);
+        usage.setAvgCpuPercent(wallMs > 0 ? 100.0 * cpuMs / (wallMs * (double) cores) : 0);
+        usage.setAllocatedBytes(Math.max(0, allocatedBytes() - allocatedBytes));
+        usage.setHeapUsedBytes(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        usage.setGcTimeMs(Math.max(0, gcTimeMs() - gcTimeMs));
+        usage.setPeakPlatformThreads(peakPlatformThreads);
+        return usage;
+    }
+
+    private static long processCpuNanos() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean sunOs) {
+            return Math.max(0, sunOs.getProcessCpuTime());
+        }
+        return 0;
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean sunThreads
+                && sunThreads.isThreadAllocatedMemorySupported()
+                && sunThreads.isThreadAllocatedMemoryEnabled()) {
+            return sunThreads.getTotalThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    private static long gcTimeMs() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+}
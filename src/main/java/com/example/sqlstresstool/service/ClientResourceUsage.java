@@ -0,0 +1,28 @@
+package com.example.sqlstresstool.service;
+
+public class ClientResourceUsage {
+    private long cpuTimeMs;
+    private double avgCpuPercent;
+    private long allocatedBytes;
+    private long heapUsedBytes;
+    private long gcTimeMs;
+    private int peakPlatformThreads;
+
+    public long getCpuTimeMs() { return cpuTimeMs; }
+    public void setCpuTimeMs(long cpuTimeMs) { this.cpuTimeMs = cpuTimeMs; }
+
+    public double getAvgCpuPercent() { return avgCpuPercent; }
+    public void setAvgCpuPercent(double avgCpuPercent) { this.avgCpuPercent = avgCpuPercent; }
+
+    public long getAllocatedBytes() { return allocatedBytes; }
+    public void setAllocatedBytes(long allocatedBytes) { this.allocatedBytes = allocatedBytes; }
+
+    public long getHeapUsedBytes() { return heapUsedBytes; }
+    public void setHeapUsedBytes(long heapUsedBytes) { this.heapUsedBytes = heapUsedBytes; }
+
+    public long getGcTimeMs() { return gcTimeMs; }
+    public void setGcTimeMs(long gcTimeMs) { this.gcTimeMs = gcTimeMs; }
+
+    public int getPeakPlatformThreads() { return peakPlatformThreads; }
+    public void setPeakPlatformThreads(int peakPlatformThreads) { this.peakPlatformThreads = peakPlatformThreads; }
+}
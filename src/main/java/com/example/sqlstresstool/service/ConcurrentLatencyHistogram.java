@@ -0,0 +1,38 @@
+package com.example.sqlstresstool.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe variant of {@link LatencyHistogram} using the same bucket layout.
+ * Used for shared live views where several workers write and a reader periodically drains.
+ */
+public class ConcurrentLatencyHistogram {
+
+    private final AtomicLongArray counts = new AtomicLongArray(LatencyHistogram.BUCKET_COUNT);
+
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, Math.min(nanos / 1000, LatencyHistogram.MAX_TRACKABLE_MICROS));
+        counts.getAndIncrement(LatencyHistogram.bucketIndex(micros));
+    }
+
+    /** Adds (bucket index, count) pairs as produced by {@link LatencyHistogram#toSparseCounts()}. */
+    public void addSparseCounts(long[] pairs) {
+        for (int j = 0; j + 1 < pairs.length; j += 2) {
+            int index = (int) pairs[j];
+            if (index >= 0 && index < LatencyHistogram.BUCKET_COUNT) counts.getAndAdd(index, pairs[j + 1]);
+        }
+    }
+
+    public void addTo(LatencyHistogram target) {
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            long c = counts.get(i);
+            if (c != 0) target.addBucketCount(i, c);
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            if (counts.get(i) != 0) counts.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.sqlstresstool.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import javax.sql.DataSource;
+
+/**
+ * A disruption scheduled inside a timed run, and the recovery measured around it. A daemon thread injects it
+ * at the scheduled second while the workers count successes and errors per 100ms by completion time. From
+ * that timeline the run reports the time to the first success of an operation started after the injection,
+ * the time until a 500ms window averages 90% of the throughput before it, and the operations that failed
+ * until then.
+ */
+public final class Disruption {
+
+    static final int BUCKET_MS = 100;
+    static final double RECOVERED_SHARE = 0.9;
+    private static final long BUCKET_NANOS = TimeUnit.MILLISECONDS.toNanos(BUCKET_MS);
+    private static final int BUCKETS_PER_SECOND = 1000 / BUCKET_MS;
+    private static final int RECOVERY_WINDOW_BUCKETS = 5;
+    // The baseline is the throughput of at most the last 10s before the disruption, after the first second
+    private static final int MAX_BASELINE_BUCKETS = 10 * BUCKETS_PER_SECOND;
+    // Room for operations that complete after the deadline, e.g. a constant-rate run catching up
+    private static final int SPARE_SECONDS = 60;
+    private static final int MAX_STRIPES = 16;
+
+    private final DisruptionType type;
+    private final DataSource dataSource;
+    private final RunControl control;
+    private final long atSeconds;
+    private final long outageNanos;
+    private final long timelineStart;
+    private final int buckets;
+    private final int stripeMask;
+    // Stripe-major, so workers on different stripes do not share cache lines
+    private final AtomicLongArray successes;
+    private final AtomicLongArray errors;
+    // Owned by one worker slot each; read after the workers are done
+    private final long[] firstSuccess;
+    private final Thread injector;
+    private volatile boolean running = true;
+    private volatile long injectedAt;
+    private volatile String action;
+
+    private Disruption(StressRequest req, DataSource dataSource, RunControl control, int workerSlots, long timelineStart) {
+        this.type = req.getDisruption();
+        this.dataSource = dataSource;
+        this.control = control;
+        this.atSeconds = req.getDisruptionAtSeconds();
+        this.outageNanos = TimeUnit.SECONDS.toNanos(Math.max(1, req.getOutageSeconds()));
+        this.timelineStart = timelineStart;
+        this.buckets = (Math.max(1, req.getDurationSeconds()) + SPARE_SECONDS) * BUCKETS_PER_SECOND;
+        int stripes = Integer.highestOneBit(Math.min(MAX_STRIPES, Math.max(1, workerSlots)));
+        this.stripeMask = stripes - 1;
+        this.successes = new AtomicLongArray(stripes * buckets);
+        this.errors = new AtomicLongArray(stripes * buckets);
+        this.firstSuccess = new long[workerSlots];
+        this.injector = new Thread(this::injectLoop, "disruption-" + type.name().toLowerCase(Locale.ROOT));
+        injector.setDaemon(true);
+        injector.start();
+    }
+
+    public static boolean isRequested(StressRequest req) {
+        return req.getDisruption() != null && req.getDisruption() != DisruptionType.NONE;
+    }
+
+    /** Checks that the run can carry the request's disruption; call before any work is done. */
+    static void validate(StressRequest req, DataSource dataSource) {
+        if (!isRequested(req)) return;
+        LoadMode loadMode = req.getLoadMode() == null ? LoadMode.CLOSED_LOOP : req.getLoadMode();
+        if (loadMode == LoadMode.CLOSED_LOOP) {
+            throw new IllegalArgumentException("A disruption needs a timed, constant-rate or adaptive run");
+        }
+        int duration = Math.max(1, req.getDurationSeconds());
+        if (req.getDisruptionAtSeconds() < 1 || req.getDisruptionAtSeconds() >= duration) {
+            throw new IllegalArgumentException("The disruption must be scheduled between 1 and "
+                    + (duration - 1) + " seconds into the run");
+        }
+        if (req.getDisruption() == DisruptionType.ABORT_CONNECTIONS) return;
+        if (!(dataSource instanceof HikariDataSource hikari)) {
+            throw new IllegalArgumentException("A " + req.getDisruption().getLabel().toLowerCase(Locale.ROOT)
+                    + " disruption needs the HikariCP DataSource");
+        }
+        if (req.getDisruption() == DisruptionType.OUTAGE) {
+            String url = hikari.getJdbcUrl();
+            if (url == null || !url.startsWith(SimulatedDriver.URL_PREFIX)) {
+                throw new IllegalArgumentException("A server outage can only be simulated against a "
+                        + SimulatedDriver.URL_PREFIX + " target");
+            }
+            if (req.getOutageSeconds() < 1) throw new IllegalArgumentException("The outage must last at least 1 second");
+        }
+    }
+
+    /** Schedules the request's disruption on the run's timeline, or returns null when none is requested. */
+    static Disruption schedule(StressRequest req, DataSource dataSource, RunControl control, int workerSlots,
+                               long timelineStart) {
+        if (!isRequested(req)) return null;
+        return new Disruption(req, dataSource, control, workerSlots, timelineStart);
+    }
+
+    public void onSuccess(int workerSlot, long intended, long t1) {
+        successes.incrementAndGet((workerSlot & stripeMask) * buckets + bucket(t1));
+        long injected = injectedAt;
+        if (injected != 0 && intended - injected >= 0) {
+            long first = firstSuccess[workerSlot];
+            if (first == 0 || t1 - first < 0) firstSuccess[workerSlot] = t1;
+        }
+    }
+
+    public void onError(int workerSlot, long t1) {
+        errors.incrementAndGet((workerSlot & stripeMask) * buckets + bucket(t1));
+    }
+
+    private int bucket(long t) {
+        return (int) Math.max(0, Math.min(buckets - 1, (t - timelineStart) / BUCKET_NANOS));
+    }
+
+    private void injectLoop() {
+        long at = timelineStart + TimeUnit.SECONDS.toNanos(atSeconds);
+        while (running && !control.isCancelled()) {
+            long wait = at - System.nanoTime();
+            if (wait <= 0) {
+                inject();
+                return;
+            }
+            LockSupport.parkNanos(Math.min(wait, BUCKET_NANOS));
+        }
+    }
+
+    private void inject() {
+        try {
+            action = switch (type) {
+                case SOFT_EVICT -> {
+                    int evicted = softEvict();
+                    yield "Soft-evicted " + evicted + " pooled connections";
+                }
+                case HARD_EVICT -> {
+                    int evicted = softEvict();
+                    int aborted = control.abortExecutingConnections();
+                    yield "Evicted " + evicted + " pooled connections and aborted " + aborted + " in flight";
+                }
+                case ABORT_CONNECTIONS -> "Aborted " + control.abortExecutingConnections()
+                        + " connections with statements in flight";
+                case OUTAGE -> {
+                    SimulatedServer.forUrl(((HikariDataSource) dataSource).getJdbcUrl()).outage(outageNanos);
+                    yield "Simulated server down for " + TimeUnit.NANOSECONDS.toSeconds(outageNanos) + " s";
+                }
+                case NONE -> "None";
+            };
+        } catch (SQLException | RuntimeException e) {
+            action = "Injection failed: " + e.getMessage();
+        } finally {
+            injectedAt = System.nanoTime();
+        }
+    }
+
+    // The pool starts on the first borrow, so by the time of the disruption it is running
+    private int softEvict() {
+        HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+        if (pool == null) return 0;
+        int total = pool.getTotalConnections();
+        pool.softEvictConnections();
+        return total;
+    }
+
+    /** Stops the injector once the workers are done and reports the recovery on the result. */
+    public void finish(StressResult res, long endNanos) {
+        running = false;
+        LockSupport.unpark(injector);
+        try {
+            injector.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int used = (int) Math.max(1, Math.min(buckets, (endNanos - timelineStart + BUCKET_NANOS - 1) / BUCKET_NANOS));
+        long[] ok = new long[used];
+        long[] failed = new long[used];
+        for (int stripe = 0; stripe <= stripeMask; stripe++) {
+            for (int b = 0; b < used; b++) {
+                ok[b] += successes.get(stripe * buckets + b);
+                failed[b] += errors.get(stripe * buckets + b);
+            }
+        }
+        DisruptionReport report = new DisruptionReport();
+        report.setType(type);
+        report.setAtMs(TimeUnit.SECONDS.toMillis(atSeconds));
+        if (type == DisruptionType.OUTAGE) report.setOutageMs(TimeUnit.NANOSECONDS.toMillis(outageNanos));
+        report.setBucketMs(BUCKET_MS);
+        report.setSuccesses(toList(ok));
+        report.setErrors(toList(failed));
+        res.setDisruption(report);
+
+        long injected = injectedAt;
+        if (injected == 0) {
+            report.setAction("Not injected: the run ended first");
+            return;
+        }
+        report.setAction(action);
+        int at = (int) Math.min(used, atSeconds * BUCKETS_PER_SECOND);
+        // Skip the first second of warm-up when there is more than that before the disruption
+        int from = Math.max(at - MAX_BASELINE_BUCKETS, at > BUCKETS_PER_SECOND ? BUCKETS_PER_SECOND : 0);
+        long baselineOps = 0;
+        for (int b = from; b < at; b++) {
+            baselineOps += ok[b];
+        }
+        double baseline = at > from ? baselineOps * (double) BUCKETS_PER_SECOND / (at - from) : 0;
+        report.setBaselineOpsPerSec(baseline);
+
+        long first = 0;
+        for (long t : firstSuccess) {
+            if (t != 0 && (first == 0 || t - first < 0)) first = t;
+        }
+        if (first != 0) report.setTimeToFirstSuccessMs((first - injected) / 1_000_000.0);
+
+        // Recovered at the start of the first full window that averages 90% of the baseline again
+        int recoveredAt = -1;
+        long windowOps = 0;
+        for (int b = at; b < used; b++) {
+            windowOps += ok[b];
+            if (b - at >= RECOVERY_WINDOW_BUCKETS) windowOps -= ok[b - RECOVERY_WINDOW_BUCKETS];
+            if (b - at + 1 >= RECOVERY_WINDOW_BUCKETS
+                    && windowOps >= baseline * RECOVERED_SHARE * RECOVERY_WINDOW_BUCKETS / BUCKETS_PER_SECOND) {
+                recoveredAt = b - RECOVERY_WINDOW_BUCKETS + 1;
+                break;
+            }
+        }
+        report.setRecovered(recoveredAt >= 0 && baseline > 0);
+        if (report.isRecovered()) report.setTimeToRecoverMs((double) (recoveredAt - at) * BUCKET_MS);
+
+        // Failures up to the end of the recovered window: aborts barely dent throughput at high rates
+        int end = report.isRecovered() ? recoveredAt + RECOVERY_WINDOW_BUCKETS : used;
+        long failedOps = 0;
+        for (int b = at; b < end; b++) {
+            failedOps += failed[b];
+        }
+        report.setFailedOperations(failedOps);
+        // Only full buckets count towards the minimum; the last one is usually cut short by the deadline
+        long min = Long.MAX_VALUE;
+        for (int b = at; b < used - 1; b++) {
+            min = Math.min(min, ok[b]);
+        }
+        report.setMinOpsPerSec(min == Long.MAX_VALUE ? 0 : min * BUCKETS_PER_SECOND);
+    }
+
+    private static List<Long> toList(long[] values) {
+        List<Long> list = new ArrayList<>(values.length);
+        for (long v : values) {
+            list.add(v);
+        }
+        return list;
+    }
+}
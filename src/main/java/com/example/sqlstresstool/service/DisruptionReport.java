@@ -0,0 +1,63 @@
+package com.example.sqlstresstool.service;
+
+import java.util.List;
+
+/**
+ * Recovery from a disruption: how soon an operation started after it succeeded again, and how soon throughput
+ * was back to 90% of the rate before it. The timelines count completions per {@link #getBucketMs()} window
+ * from the start of the run.
+ */
+public class DisruptionReport {
+    private DisruptionType type;
+    private long atMs;
+    private Long outageMs;
+    private String action;
+    private double baselineOpsPerSec;
+    private double minOpsPerSec;
+    private Double timeToFirstSuccessMs;
+    private Double timeToRecoverMs;
+    private boolean recovered;
+    private long failedOperations;
+    private int bucketMs;
+    private List<Long> successes;
+    private List<Long> errors;
+
+    public DisruptionType getType() { return type; }
+    public void setType(DisruptionType type) { this.type = type; }
+
+    public long getAtMs() { return atMs; }
+    public void setAtMs(long atMs) { this.atMs = atMs; }
+
+    public Long getOutageMs() { return outageMs; }
+    public void setOutageMs(Long outageMs) { this.outageMs = outageMs; }
+
+    public String getAction() { return action; }
+    public void setAction(String action) { this.action = action; }
+
+    public double getBaselineOpsPerSec() { return baselineOpsPerSec; }
+    public void setBaselineOpsPerSec(double baselineOpsPerSec) { this.baselineOpsPerSec = baselineOpsPerSec; }
+
+    public double getMinOpsPerSec() { return minOpsPerSec; }
+    public void setMinOpsPerSec(double minOpsPerSec) { this.minOpsPerSec = minOpsPerSec; }
+
+    public Double getTimeToFirstSuccessMs() { return timeToFirstSuccessMs; }
+    public void setTimeToFirstSuccessMs(Double timeToFirstSuccessMs) { this.timeToFirstSuccessMs = timeToFirstSuccessMs; }
+
+    public Double getTimeToRecoverMs() { return timeToRecoverMs; }
+    public void setTimeToRecoverMs(Double timeToRecoverMs) { this.timeToRecoverMs = timeToRecoverMs; }
+
+    public boolean isRecovered() { return recovered; }
+    public void setRecovered(boolean recovered) { this.recovered = recovered; }
+
+    public long getFailedOperations() { return failedOperations; }
+    public void setFailedOperations(long failedOperations) { this.failedOperations = failedOperations; }
+
+    public int getBucketMs() { return bucketMs; }
+    public void setBucketMs(int bucketMs) { this.bucketMs = bucketMs; }
+
+    public List<Long> getSuccesses() { return successes; }
+    public void setSuccesses(List<Long> successes) { this.successes = successes; }
+
+    public List<Long> getErrors() { return errors; }
+    public void setErrors(List<Long> errors) { this.errors = errors; }
+}
@@ -0,0 +1,24 @@
+package com.example.sqlstresstool.service;
+
+/**
+ * Connection disruption injected part-way through a run, to measure how long the client takes to recover.
+ * The pool evictions and aborts work against any target; the outage only against the simulated driver.
+ */
+public enum DisruptionType {
+    NONE("None"),
+    // Idle connections are closed now, busy ones when they are returned; nothing in flight fails
+    SOFT_EVICT("Soft evict pool"),
+    // Soft eviction plus an abort of the connections with a statement in flight
+    HARD_EVICT("Hard evict pool"),
+    // Connections in flight are aborted behind the pool's back, as a network reset would
+    ABORT_CONNECTIONS("Abort connections"),
+    OUTAGE("Server outage (simulated)");
+
+    private final String label;
+
+    DisruptionType(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() { return label; }
+}
@@ -0,0 +1,338 @@
+package com.example.sqlstresstool.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Coordinator side of a distributed run. The request's load is split across the registered agents
+ * (other instances of this app), every agent is told to start at the same wall-clock time, and their
+ * histograms, including the per-phase and service-time ones, are merged bucket by bucket into one result. Agents need roughly synchronized clocks
+ * (NTP); on localhost they share one. While they run, the intervals in the agents' live snapshots are
+ * added to the coordinator's live stats, so the coordinator's live view shows the whole run.
+ */
+@Service
+public class DistributedRunService {
+
+    private static final long START_LEAD_MS = 2000;
+    private static final long POLL_MS = 500;
+    private static final int MAX_POLL_FAILURES = 20;
+    private static final int MAX_ERROR_SAMPLES = 5;
+
+    private final List<String> agents = new CopyOnWriteArrayList<>();
+    private final ObjectMapper mapper;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    public DistributedRunService(@Value("${stress.agents:}") String agentUrls, ObjectMapper mapper) {
+        this.mapper = mapper;
+        for (String url : agentUrls.split(",")) {
+            if (!url.isBlank()) agents.add(normalize(url));
+        }
+    }
+
+    public List<String> getAgents() { return List.copyOf(agents); }
+
+    public String addAgent(String url) {
+        String normalized = normalize(url);
+        if (!agents.contains(normalized)) agents.add(normalized);
+        return normalized;
+    }
+
+    private static String normalize(String url) {
+        String normalized = url.trim().replaceAll("/+$", "");
+        if (!normalized.toLowerCase(Locale.ROOT).matches("https?://.+")) {
+            throw new IllegalArgumentException("Agent URL must start with http:// or https://");
+        }
+        return normalized;
+    }
+
+    public boolean removeAgent(String url) {
+        return agents.remove(url.trim().replaceAll("/+$", ""));
+    }
+
+    public StressResult run(StressRequest req, RunControl control) throws InterruptedException {
+        if (req.getProfile() != null && !req.getProfile().isBlank()) {
+            throw new IllegalArgumentException("Load profiles are not supported in distributed mode");
+        }
+        if (PoolSweep.isRequested(req)) {
+            throw new IllegalArgumentException("Pool sweeps are not supported in distributed mode");
+        }
+        if (!TargetRunService.targetNames(req).isEmpty()) {
+            throw new IllegalArgumentException("Named targets are not supported in distributed mode; agents use their own DataSource");
+        }
+        if (req.getTransactionSize() > 0) {
+            throw new IllegalArgumentException("Transaction mode is not supported in distributed mode");
+        }
+        if (Disruption.isRequested(req)) {
+            throw new IllegalArgumentException("Disruptions are not supported in distributed mode");
+        }
+        List<String> registered = List.copyOf(agents);
+        if (registered.isEmpty()) {
+            throw new IllegalStateException("No agents registered");
+        }
+        List<StressRequest> parts = split(req, registered.size());
+        List<String> targets = registered.subList(0, parts.size());
+
+        int n = targets.size();
+        String[] runIds = new String[n];
+        AgentReport[] reports = new AgentReport[n];
+        String[] failures = new String[n];
+        int[] pollFailures = new int[n];
+        long[] snapshotsSeen = new long[n];
+        long[] errorsSeen = new long[n];
+        LiveStats live = control.getLiveStats();
+        long startAt = System.currentTimeMillis() + START_LEAD_MS;
+
+        for (int i = 0; i < n; i++) {
+            try {
+                AgentReport accepted = post(targets.get(i) + "/api/agent/runs", new AgentRunRequest(parts.get(i), startAt));
+                runIds[i] = accepted.getId();
+            } catch (IOException e) {
+                failures[i] = "dispatch failed: " + e.getMessage();
+            }
+        }
+
+        boolean cancelSent = false;
+        while (true) {
+            boolean pending = false;
+            for (int i = 0; i < n; i++) {
+                if (runIds[i] == null || failures[i] != null || (reports[i] != null && reports[i].isFinished())) continue;
+                try {
+                    reports[i] = get(targets.get(i) + "/api/agent/runs/" + runIds[i] + "?since=" + snapshotsSeen[i]);
+                    pollFailures[i] = 0;
+                    addIntervals(live, reports[i].getSnapshots(), i, snapshotsSeen, errorsSeen);
+                } catch (IOException e) {
+                    if (++pollFailures[i] >= MAX_POLL_FAILURES) failures[i] = "lost contact: " + e.getMessage();
+                }
+                if (failures[i] == null && (reports[i] == null || !reports[i].isFinished())) pending = true;
+            }
+            if (!pending) break;
+            if (control.isCancelled() && !cancelSent) {
+                cancelSent = true;
+                for (int i = 0; i < n; i++) {
+                    if (runIds[i] != null) postQuietly(targets.get(i) + "/api/agent/runs/" + runIds[i] + "/cancel");
+                }
+            }
+            Thread.sleep(POLL_MS);
+        }
+
+        return merge(req, control, targets, parts, reports, failures);
+    }
+
+    // Snapshots carry running error totals, so the errors of an interval the agent skipped go to the next one
+    private static void addIntervals(LiveStats live, List<LiveSnapshot> snapshots, int agent, long[] snapshotsSeen,
+                                     long[] errorsSeen) {
+        if (snapshots == null) return;
+        for (LiveSnapshot snap : snapshots) {
+            snapshotsSeen[agent]++;
+            if (live != null) live.addInterval(snap.getElapsedMs(), snap.getLatencyCounts(), snap.getErrors() - errorsSeen[agent]);
+            errorsSeen[agent] = snap.getErrors();
+        }
+    }
+
+    /** Splits iterations, concurrency and target rate evenly; agents that would get no work are left out. */
+    static List<StressRequest> split(StressRequest req, int agentCount) {
+        boolean constantRate = req.getLoadMode() == LoadMode.CONSTANT_RATE;
+        int concurrency = Math.max(1, req.getConcurrency());
+        int units = Math.min(agentCount, concurrency);
+        if (req.getLoadMode() == null || req.getLoadMode() == LoadMode.CLOSED_LOOP) {
+            units = (int) Math.min(units, Math.max(1, req.getIterations()));
+        }
+        List<StressRequest> parts = new ArrayList<>();
+        for (int i = 0; i < units; i++) {
+            StressRequest part = req.copy();
+            part.setDistributed(false);
+            part.setConcurrency(share(concurrency, units, i));
+            part.setIterations(share(Math.max(1, req.getIterations()), units, i));
+            if (constantRate) part.setTargetRate(req.getTargetRate() / units);
+            parts.add(part);
+        }
+        return parts;
+    }
+
+    private static int share(int total, int parts, int index) {
+        return (int) share((long) total, parts, index);
+    }
+
+    private static long share(long total, int parts, int index) {
+        return total / parts + (index < total % parts ? 1 : 0);
+    }
+
+    private StressResult merge(StressRequest req, RunControl control, List<String> targets, List<StressRequest> parts,
+                               AgentReport[] reports, String[] failures) {
+        LatencyHistogram merged = new LatencyHistogram();
+        LatencyHistogram[] phases = {new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram()};
+        LatencyHistogram service = new LatencyHistogram();
+        long lateCount = 0;
+        double maxLagMs = 0;
+        List<AgentResult> agentResults = new ArrayList<>();
+        List<String> errorSamples = new ArrayList<>();
+        List<List<String>> sampleRows = new ArrayList<>();
+        List<List<ErrorCount>> errorCodes = new ArrayList<>();
+        long retries = 0;
+        Double sustainableConcurrency = null;
+        Double sustainableThroughput = null;
+        long success = 0;
+        long errors = 0;
+        long durationMs = 0;
+        Instant start = null;
+        Instant end = null;
+        boolean cancelled = control.isCancelled();
+
+        for (int i = 0; i < targets.size(); i++) {
+            AgentReport report = reports[i];
+            AgentResult ar = new AgentResult();
+            ar.setUrl(targets.get(i));
+            StressRequest part = parts.get(i);
+            ar.setShare(req.getLoadMode() == LoadMode.CONSTANT_RATE
+                    ? String.format("%.1f ops/s, concurrency %d", part.getTargetRate(), part.getConcurrency())
+                    : req.getLoadMode() == LoadMode.TIMED || req.getLoadMode() == LoadMode.ADAPTIVE
+                    ? "concurrency " + part.getConcurrency()
+                    : part.getIterations() + " iterations, concurrency " + part.getConcurrency());
+            agentResults.add(ar);
+
+            String failure = failures[i] != null ? failures[i]
+                    : report == null ? "no report"
+                    : report.getStatus() == RunJobStatus.FAILED ? report.getFailureMessage() : null;
+            if (failure != null) {
+                ar.setStatus("FAILED");
+                ar.setMessage(failure);
+                if (errorSamples.size() < MAX_ERROR_SAMPLES) errorSamples.add("Agent " + targets.get(i) + ": " + failure);
+                continue;
+            }
+
+            LatencyHistogram h = LatencyHistogram.fromSnapshot(report.getHistogram());
+            merged.add(h);
+            if (report.getPhases() != null) {
+                for (int p = 0; p < Math.min(phases.length, report.getPhases().size()); p++) {
+                    phases[p].add(LatencyHistogram.fromSnapshot(report.getPhases().get(p)));
+                }
+            }
+            if (report.getServiceHistogram() != null) service.add(LatencyHistogram.fromSnapshot(report.getServiceHistogram()));
+            lateCount += report.getLateCount();
+            maxLagMs = Math.max(maxLagMs, report.getMaxLagMs());
+            success += report.getSuccessCount();
+            errors += report.getErrorCount();
+            durationMs = Math.max(durationMs, report.getDurationMs());
+            cancelled |= report.isCancelled();
+            start = earliest(start, report.getStartTime());
+            end = latest(end, report.getFinishTime());
+            if (report.getErrorSamples() != null) {
+                for (String e : report.getErrorSamples()) {
+                    if (errorSamples.size() < MAX_ERROR_SAMPLES) errorSamples.add(e);
+                }
+            }
+            if (sampleRows.isEmpty() && report.getSampleRows() != null) sampleRows.addAll(report.getSampleRows());
+            errorCodes.add(report.getErrorCodes());
+            retries += report.getRetries();
+            // Agents converge independently; together they sustain the sum of their limits
+            if (report.getSustainableConcurrency() != null) {
+                sustainableConcurrency = (sustainableConcurrency == null ? 0 : sustainableConcurrency) + report.getSustainableConcurrency();
+                sustainableThroughput = (sustainableThroughput == null ? 0 : sustainableThroughput) + report.getSustainableThroughput();
+            }
+
+            ar.setStatus(String.valueOf(report.getStatus()));
+            ar.setSuccessCount(report.getSuccessCount());
+            ar.setErrorCount(report.getErrorCount());
+            ar.setDurationMs(report.getDurationMs());
+            ar.setAchievedRate(report.getDurationMs() > 0
+                    ? (report.getSuccessCount() + report.getErrorCount()) * 1000.0 / report.getDurationMs() : 0);
+            ar.setP50Ms(h.getValueAtPercentile(50) / 1000.0);
+            ar.setP99Ms(h.getValueAtPercentile(99) / 1000.0);
+        }
+
+        if (start == null) {
+            throw new IllegalStateException("All agents failed: " + String.join("; ", errorSamples));
+        }
+        durationMs = Math.max(durationMs, Duration.between(start, end).toMillis());
+
+        StressResult res = new StressResult();
+        res.setTotalIterations(success + errors);
+        res.setCancelled(cancelled);
+        res.setConcurrency(Math.max(1, req.getConcurrency()));
+        res.setDurationMs(durationMs);
+        res.setStartTime(DateTimeFormatter.ISO_INSTANT.format(start));
+        res.setFinishTime(DateTimeFormatter.ISO_INSTANT.format(end));
+        res.setSuccessCount(success);
+        res.setErrorCount(errors);
+        SqlRunnerService.applyLatencyStats(res, merged);
+        res.setEngine(req.getEngine() == null ? EngineType.PLATFORM : req.getEngine());
+        res.setLoadMode(req.getLoadMode());
+        res.setAchievedRate(durationMs > 0 ? (success + errors) * 1000.0 / durationMs : 0);
+        res.setPhases(PhaseLatency.withShares(List.of(
+                PhaseLatency.of(PhaseLatency.ACQUIRE, phases[0]),
+                PhaseLatency.of(PhaseLatency.EXECUTE, phases[1]),
+                PhaseLatency.of(PhaseLatency.FETCH, phases[2]))));
+        if (req.getLoadMode() == LoadMode.CONSTANT_RATE) {
+            res.setTargetRate(req.getTargetRate());
+            res.setLateCount(lateCount);
+            res.setMaxLagMs(maxLagMs);
+            res.setServiceHistogram(service);
+            res.setServicePercentiles(SqlRunnerService.percentileTable(service));
+        }
+        res.setAgents(agentResults);
+        res.setErrorCodes(ErrorCount.merge(errorCodes));
+        res.setRetries(retries);
+        res.setSustainableConcurrency(sustainableConcurrency);
+        res.setSustainableThroughput(sustainableThroughput);
+        res.setErrorSamples(errorSamples);
+        res.setSampleRows(sampleRows);
+        return res;
+    }
+
+    private static Instant earliest(Instant current, String time) {
+        if (time == null) return current;
+        Instant t = Instant.parse(time);
+        return current == null || t.isBefore(current) ? t : current;
+    }
+
+    private static Instant latest(Instant current, String time) {
+        if (time == null) return current;
+        Instant t = Instant.parse(time);
+        return current == null || t.isAfter(current) ? t : current;
+    }
+
+    private AgentReport post(String url, Object body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
+                .build();
+        return send(request);
+    }
+
+    private AgentReport get(String url) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(10)).GET().build());
+    }
+
+    private void postQuietly(String url) {
+        try {
+            http.send(HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(5))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            // The agent's own run will still finish and be reported
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private AgentReport send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("HTTP " + response.statusCode() + " from " + request.uri());
+        }
+        return mapper.readValue(response.body(), AgentReport.class);
+    }
+}
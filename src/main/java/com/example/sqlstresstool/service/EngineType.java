@@ -0,0 +1,6 @@
+package com.example.sqlstresstool.service;
+
+public enum EngineType {
+    PLATFORM,
+    VIRTUAL
+}
@@ -0,0 +1,52 @@
+package com.example.sqlstresstool.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Failures with one SQL error number (-1 when not a SQLException), counting every attempt including retried ones. */
+public class ErrorCount {
+    private int code;
+    private String category;
+    private long count;
+    private String message;
+
+    public ErrorCount() {
+    }
+
+    public ErrorCount(int code, String category, long count, String message) {
+        this.code = code;
+        this.category = category;
+        this.count = count;
+        this.message = message;
+    }
+
+    /** Sums counts by error number, most frequent first. */
+    public static List<ErrorCount> merge(List<List<ErrorCount>> lists) {
+        Map<Integer, ErrorCount> merged = new LinkedHashMap<>();
+        for (List<ErrorCount> list : lists) {
+            if (list == null) continue;
+            for (ErrorCount e : list) {
+                ErrorCount m = merged.computeIfAbsent(e.code, c -> new ErrorCount(c, e.category, 0, e.message));
+                m.count += e.count;
+            }
+        }
+        List<ErrorCount> result = new ArrayList<>(merged.values());
+        result.sort(Comparator.comparingLong(ErrorCount::getCount).reversed());
+        return result;
+    }
+
+    public int getCode() { return code; }
+    public void setCode(int code) { this.code = code; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,24 @@
+package com.example.sqlstresstool.service;
+
+/**
+ * Strategy for running worker tasks with at most {@code concurrency} of them in flight.
+ */
+public interface ExecutionEngine extends AutoCloseable {
+
+    EngineType getType();
+
+    /** Most platform threads of its own the engine had running at once; 0 when workers share the carrier pool. */
+    int getPeakPlatformThreads();
+
+    void submit(WorkerTask task) throws InterruptedException;
+
+    @Override
+    void close();
+
+    static ExecutionEngine create(EngineType type, int concurrency) {
+        if (type == EngineType.VIRTUAL) {
+            return new VirtualThreadEngine(concurrency);
+        }
+        return new PlatformThreadEngine(concurrency);
+    }
+}
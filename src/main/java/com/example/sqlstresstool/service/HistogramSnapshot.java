@@ -0,0 +1,25 @@
+package com.example.sqlstresstool.service;
+
+/** Serializable form of a {@link LatencyHistogram}: sparse (bucket, count) pairs plus exact moments. */
+public class HistogramSnapshot {
+    private long[] counts;
+    private long minMicros;
+    private long maxMicros;
+    private double sumMicros;
+    private double sumSquares;
+
+    public long[] getCounts() { return counts; }
+    public void setCounts(long[] counts) { this.counts = counts; }
+
+    public long getMinMicros() { return minMicros; }
+    public void setMinMicros(long minMicros) { this.minMicros = minMicros; }
+
+    public long getMaxMicros() { return maxMicros; }
+    public void setMaxMicros(long maxMicros) { this.maxMicros = maxMicros; }
+
+    public double getSumMicros() { return sumMicros; }
+    public void setSumMicros(double sumMicros) { this.sumMicros = sumMicros; }
+
+    public double getSumSquares() { return sumSquares; }
+    public void setSumSquares(double sumSquares) { this.sumSquares = sumSquares; }
+}
@@ -0,0 +1,29 @@
+package com.example.sqlstresstool.service;
+
+import com.microsoft.sqlserver.jdbc.ISQLServerConnection;
+import java.sql.Connection;
+
+/**
+ * Isolation level of transaction-mode runs. READ COMMITTED and RCSI are the same session setting: whether
+ * reads take shared locks or use row versions depends on the database's READ_COMMITTED_SNAPSHOT option,
+ * which the run checks and reports when it does not match the chosen level.
+ */
+public enum IsolationLevel {
+    READ_COMMITTED("Read committed", Connection.TRANSACTION_READ_COMMITTED),
+    READ_COMMITTED_SNAPSHOT("Read committed snapshot (RCSI)", Connection.TRANSACTION_READ_COMMITTED),
+    // Needs ALLOW_SNAPSHOT_ISOLATION ON; writers can fail with update conflict 3960
+    SNAPSHOT("Snapshot", ISQLServerConnection.TRANSACTION_SNAPSHOT),
+    SERIALIZABLE("Serializable", Connection.TRANSACTION_SERIALIZABLE);
+
+    private final String label;
+    private final int jdbcLevel;
+
+    IsolationLevel(String label, int jdbcLevel) {
+        this.label = label;
+        this.jdbcLevel = jdbcLevel;
+    }
+
+    public String getLabel() { return label; }
+
+    public int getJdbcLevel() { return jdbcLevel; }
+}
@@ -0,0 +1,223 @@
+package com.example.sqlstresstool.service;
+
+import java.util.Arrays;
+
+/**
+ * Log-linear latency histogram in microseconds (HDR-style bucketing).
+ * Values below 256us are recorded exactly; above that each power of two is split
+ * into 128 linear sub-buckets, keeping the relative error under 0.8%.
+ * Not thread-safe: each worker records into its own instance and they are merged at the end.
+ * <p>
+ * Counts live in pages of 128 buckets, one power of two each above 256us, allocated on first use. A histogram
+ * only pays for the latency range it has seen (typically a few KB rather than 30 KB), which keeps per-worker
+ * histograms affordable at thousands of workers.
+ */
+public class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 8;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+    // ~19 hours in microseconds, anything larger is clamped
+    static final long MAX_TRACKABLE_MICROS = (1L << 36) - 1;
+    static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_MICROS) + 1;
+    private static final int PAGE_BITS = SUB_BUCKET_BITS - 1;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final long[][] pages = new long[(BUCKET_COUNT + PAGE_SIZE - 1) >> PAGE_BITS][];
+    private long totalCount;
+    private long minMicros = Long.MAX_VALUE;
+    private long maxMicros;
+    private double sumMicros;
+    private double sumSquares;
+
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1000);
+    }
+
+    public void recordMicros(long micros) {
+        long v = Math.max(0, Math.min(micros, MAX_TRACKABLE_MICROS));
+        int index = bucketIndex(v);
+        page(index)[index & PAGE_MASK]++;
+        totalCount++;
+        if (v < minMicros) minMicros = v;
+        if (v > maxMicros) maxMicros = v;
+        sumMicros += v;
+        sumSquares += (double) v * v;
+    }
+
+    void addBucketCount(int index, long count) {
+        if (count <= 0) return;
+        long lowest = lowestEquivalentValue(index);
+        long highest = highestEquivalentValue(index);
+        double mid = (lowest + highest) / 2.0;
+        page(index)[index & PAGE_MASK] += count;
+        totalCount += count;
+        if (lowest < minMicros) minMicros = lowest;
+        if (highest > maxMicros) maxMicros = highest;
+        sumMicros += mid * count;
+        sumSquares += mid * mid * count;
+    }
+
+    private long[] page(int index) {
+        long[] page = pages[index >> PAGE_BITS];
+        if (page == null) page = pages[index >> PAGE_BITS] = new long[PAGE_SIZE];
+        return page;
+    }
+
+    private long count(int index) {
+        long[] page = pages[index >> PAGE_BITS];
+        return page == null ? 0 : page[index & PAGE_MASK];
+    }
+
+    public void reset() {
+        for (long[] page : pages) {
+            if (page != null) Arrays.fill(page, 0);
+        }
+        totalCount = 0;
+        minMicros = Long.MAX_VALUE;
+        maxMicros = 0;
+        sumMicros = 0;
+        sumSquares = 0;
+    }
+
+    public void add(LatencyHistogram other) {
+        if (other.totalCount == 0) return;
+        for (int p = 0; p < pages.length; p++) {
+            long[] from = other.pages[p];
+            if (from == null) continue;
+            long[] to = pages[p];
+            if (to == null) to = pages[p] = new long[PAGE_SIZE];
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                to[i] += from[i];
+            }
+        }
+        totalCount += other.totalCount;
+        minMicros = Math.min(minMicros, other.minMicros);
+        maxMicros = Math.max(maxMicros, other.maxMicros);
+        sumMicros += other.sumMicros;
+        sumSquares += other.sumSquares;
+    }
+
+    /** Non-empty buckets as flattened (bucket index, count) pairs, for persisting a histogram compactly. */
+    public long[] toSparseCounts() {
+        int used = 0;
+        for (long[] page : pages) {
+            if (page == null) continue;
+            for (long c : page) if (c != 0) used++;
+        }
+        long[] pairs = new long[used * 2];
+        int j = 0;
+        for (int p = 0; p < pages.length; p++) {
+            long[] page = pages[p];
+            if (page == null) continue;
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                if (page[i] != 0) {
+                    pairs[j++] = ((long) p << PAGE_BITS) + i;
+                    pairs[j++] = page[i];
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /** Rebuilds a histogram from {@link #toSparseCounts()}; min, max and mean are recovered at bucket resolution. */
+    public static LatencyHistogram fromSparseCounts(long[] pairs) {
+        LatencyHistogram h = new LatencyHistogram();
+        if (pairs == null) return h;
+        for (int j = 0; j + 1 < pairs.length; j += 2) {
+            int index = (int) pairs[j];
+            if (index >= 0 && index < BUCKET_COUNT) h.addBucketCount(index, pairs[j + 1]);
+        }
+        return h;
+    }
+
+    /** Full state for shipping a histogram between nodes; merging restored snapshots loses nothing. */
+    public HistogramSnapshot snapshot() {
+        HistogramSnapshot s = new HistogramSnapshot();
+        s.setCounts(toSparseCounts());
+        s.setMinMicros(getMinMicros());
+        s.setMaxMicros(maxMicros);
+        s.setSumMicros(sumMicros);
+        s.setSumSquares(sumSquares);
+        return s;
+    }
+
+    public static LatencyHistogram fromSnapshot(HistogramSnapshot s) {
+        LatencyHistogram h = new LatencyHistogram();
+        if (s == null || s.getCounts() == null) return h;
+        long[] pairs = s.getCounts();
+        for (int j = 0; j + 1 < pairs.length; j += 2) {
+            int index = (int) pairs[j];
+            if (index >= 0 && index < BUCKET_COUNT && pairs[j + 1] > 0) {
+                h.page(index)[index & PAGE_MASK] += pairs[j + 1];
+                h.totalCount += pairs[j + 1];
+            }
+        }
+        if (h.totalCount > 0) {
+            h.minMicros = s.getMinMicros();
+            h.maxMicros = s.getMaxMicros();
+            h.sumMicros = s.getSumMicros();
+            h.sumSquares = s.getSumSquares();
+        }
+        return h;
+    }
+
+    public long getTotalCount() { return totalCount; }
+
+    public long getMinMicros() { return totalCount == 0 ? 0 : minMicros; }
+
+    public long getMaxMicros() { return maxMicros; }
+
+    public double getMeanMicros() {
+        return totalCount == 0 ? 0 : sumMicros / totalCount;
+    }
+
+    public double getStdDevMicros() {
+        if (totalCount == 0) return 0;
+        double mean = getMeanMicros();
+        double variance = sumSquares / totalCount - mean * mean;
+        return variance <= 0 ? 0 : Math.sqrt(variance);
+    }
+
+    /** Value at the given percentile (0-100), reported as the highest value equivalent to its bucket. */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) return 0;
+        double p = Math.max(0, Math.min(percentile, 100.0));
+        long target = Math.max(1, (long) Math.ceil(p / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if ((i & PAGE_MASK) == 0 && pages[i >> PAGE_BITS] == null) {
+                i += PAGE_MASK;
+                continue;
+            }
+            seen += count(i);
+            if (seen >= target) {
+                return Math.max(getMinMicros(), Math.min(highestEquivalentValue(i), maxMicros));
+            }
+        }
+        return maxMicros;
+    }
+
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKET_COUNT) return (int) micros;
+        int magnitude = 63 - Long.numberOfLeadingZeros(micros);
+        int shift = magnitude - (SUB_BUCKET_BITS - 1);
+        int sub = (int) (micros >>> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (sub - SUB_BUCKET_HALF);
+    }
+
+    static long lowestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / SUB_BUCKET_HALF + 1;
+        long sub = offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return sub << shift;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+        return lowestEquivalentValue(index) + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.sqlstresstool.service;
+
+/**
+ * Gives each worker slot its own {@link LatencyHistogram} so recording never contends.
+ * A slot's histogram is created by its worker on first record, so slots that never record (idle adaptive
+ * workers, the fetch phase of statements without results) cost nothing. The per-worker histograms are
+ * merged once the run has finished.
+ */
+public class LatencyRecorder {
+
+    private final LatencyHistogram[] histograms;
+
+    public LatencyRecorder(int workerSlots) {
+        this.histograms = new LatencyHistogram[workerSlots];
+    }
+
+    public void recordNanos(int workerSlot, long nanos) {
+        LatencyHistogram h = histograms[workerSlot];
+        if (h == null) h = histograms[workerSlot] = new LatencyHistogram();
+        h.recordNanos(nanos);
+    }
+
+    public LatencyHistogram merge() {
+        LatencyHistogram merged = new LatencyHistogram();
+        for (LatencyHistogram h : histograms) {
+            if (h != null) merged.add(h);
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.sqlstresstool.service;
+
+public class LiveSnapshot {
+    private long elapsedMs;
+    private double opsPerSec;
+    private double errorRate;
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+    private long completed;
+    private long errors;
+    private int poolActive;
+    private int poolIdle;
+    private int poolTotal;
+    private int poolWaiting;
+    // This interval's latencies as sparse (bucket, count) pairs; only agents of a distributed run fill it in
+    private long[] latencyCounts;
+
+    public long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+
+    public double getOpsPerSec() { return opsPerSec; }
+    public void setOpsPerSec(double opsPerSec) { this.opsPerSec = opsPerSec; }
+
+    public double getErrorRate() { return errorRate; }
+    public void setErrorRate(double errorRate) { this.errorRate = errorRate; }
+
+    public double getP50Ms() { return p50Ms; }
+    public void setP50Ms(double p50Ms) { this.p50Ms = p50Ms; }
+
+    public double getP95Ms() { return p95Ms; }
+    public void setP95Ms(double p95Ms) { this.p95Ms = p95Ms; }
+
+    public double getP99Ms() { return p99Ms; }
+    public void setP99Ms(double p99Ms) { this.p99Ms = p99Ms; }
+
+    public long getCompleted() { return completed; }
+    public void setCompleted(long completed) { this.completed = completed; }
+
+    public long getErrors() { return errors; }
+    public void setErrors(long errors) { this.errors = errors; }
+
+    public int getPoolActive() { return poolActive; }
+    public void setPoolActive(int poolActive) { this.poolActive = poolActive; }
+
+    public int getPoolIdle() { return poolIdle; }
+    public void setPoolIdle(int poolIdle) { this.poolIdle = poolIdle; }
+
+    public int getPoolTotal() { return poolTotal; }
+    public void setPoolTotal(int poolTotal) { this.poolTotal = poolTotal; }
+
+    public int getPoolWaiting() { return poolWaiting; }
+    public void setPoolWaiting(int poolWaiting) { this.poolWaiting = poolWaiting; }
+
+    public long[] getLatencyCounts() { return latencyCounts; }
+    public void setLatencyCounts(long[] latencyCounts) { this.latencyCounts = latencyCounts; }
+}
@@ -0,0 +1,151 @@
+package com.example.sqlstresstool.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Incremental per-interval statistics for a running job. Workers record into the bucket for the
+ * current interval (O(1), striped by worker slot); a single reader closes each interval in turn,
+ * producing a {@link LiveSnapshot} with rolling percentiles over the last few intervals.
+ * <p>
+ * Buckets are reused around a ring. Each is stamped with the interval it was last cleared for, so a reader
+ * that falls behind (a stalled ticker, a long GC pause) skips the intervals whose buckets were not cleared
+ * for them or have since been reused, rather than reporting another interval's data.
+ * <p>
+ * The coordinator of a distributed run records no operations itself. It adds the intervals its agents closed
+ * instead, and its reader stays a few intervals behind so that they arrive before it closes them.
+ */
+public class LiveStats {
+
+    private static final int RING_SIZE = 16;
+    private static final int ROLLING_WINDOW = 5;
+    private static final int MAX_STRIPES = 8;
+
+    private final long startNanos;
+    private final long intervalNanos;
+    private final int stripes;
+    private final boolean shareIntervals;
+    private final Interval[] ring = new Interval[RING_SIZE];
+
+    // Reader-side state, only touched by the thread calling closeInterval
+    private final LatencyHistogram intervalScratch = new LatencyHistogram();
+    private final LatencyHistogram windowScratch = new LatencyHistogram();
+    private long totalCompleted;
+    private long totalErrors;
+
+    public LiveStats(long intervalNanos, int concurrency) {
+        this(intervalNanos, concurrency, false);
+    }
+
+    /** With shareIntervals, each snapshot also carries its interval's latencies for a coordinator to merge. */
+    public LiveStats(long intervalNanos, int concurrency, boolean shareIntervals) {
+        this.shareIntervals = shareIntervals;
+        this.startNanos = System.nanoTime();
+        this.intervalNanos = intervalNanos;
+        this.stripes = Math.max(1, Math.min(concurrency, Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors())));
+        for (int i = 0; i < RING_SIZE; i++) {
+            ring[i] = new Interval(stripes);
+            ring[i].stamp = i;
+        }
+    }
+
+    public long getStartNanos() { return startNanos; }
+
+    public long getIntervalNanos() { return intervalNanos; }
+
+    public void record(int workerSlot, long nowNanos, long latencyNanos) {
+        ring[ringIndex(nowNanos)].latencies[workerSlot % stripes].recordNanos(latencyNanos);
+    }
+
+    public void recordError(long nowNanos) {
+        ring[ringIndex(nowNanos)].errors.increment();
+    }
+
+    /**
+     * Adds an interval an agent closed to the interval ending at the same elapsed time here; the agent's clock
+     * starts when it accepts its part, just after this one. Intervals whose bucket may have been recycled are
+     * dropped.
+     */
+    public void addInterval(long elapsedMs, long[] latencyCounts, long errors) {
+        long interval = elapsedMs * 1_000_000 / intervalNanos - 1;
+        long current = currentInterval();
+        if (interval < 0 || current - interval >= RING_SIZE / 2 || interval > current) return;
+        Interval bucket = ring[(int) (interval % RING_SIZE)];
+        if (latencyCounts != null) bucket.latencies[0].addSparseCounts(latencyCounts);
+        if (errors > 0) bucket.errors.add(errors);
+    }
+
+    public long currentInterval() {
+        return (System.nanoTime() - startNanos) / intervalNanos;
+    }
+
+    /** Closes the interval; returns null when its bucket was recycled before the reader got to it. */
+    public LiveSnapshot closeInterval(long interval) {
+        Interval closed = ring[(int) (interval % RING_SIZE)];
+        intervalScratch.reset();
+        for (ConcurrentLatencyHistogram h : closed.latencies) {
+            h.addTo(intervalScratch);
+        }
+        long completed = intervalScratch.getTotalCount();
+        long errors = closed.errors.sum();
+        // Read first, then check: workers reach the same bucket again RING_SIZE intervals later
+        long current = currentInterval();
+        boolean valid = closed.stamp == interval && current - interval < RING_SIZE;
+
+        // Recycle a bucket far enough ahead that no worker is writing into it yet. A reader that is behind
+        // leaves it alone; the interval is then reported missing instead of mixed with older data.
+        long ahead = interval + RING_SIZE / 2;
+        if (ahead > current) ring[(int) (ahead % RING_SIZE)].reset(ahead);
+        if (!valid) return null;
+
+        totalCompleted += completed;
+        totalErrors += errors;
+        windowScratch.reset();
+        windowScratch.add(intervalScratch);
+        for (int i = 1; i < ROLLING_WINDOW && interval - i >= 0; i++) {
+            Interval previous = ring[(int) ((interval - i) % RING_SIZE)];
+            if (previous.stamp != interval - i) continue;
+            for (ConcurrentLatencyHistogram h : previous.latencies) {
+                h.addTo(windowScratch);
+            }
+        }
+
+        double seconds = intervalNanos / 1_000_000_000.0;
+        LiveSnapshot snap = new LiveSnapshot();
+        snap.setElapsedMs((interval + 1) * intervalNanos / 1_000_000);
+        snap.setOpsPerSec((completed + errors) / seconds);
+        snap.setErrorRate(completed + errors == 0 ? 0 : (double) errors / (completed + errors));
+        snap.setP50Ms(windowScratch.getValueAtPercentile(50) / 1000.0);
+        snap.setP95Ms(windowScratch.getValueAtPercentile(95) / 1000.0);
+        snap.setP99Ms(windowScratch.getValueAtPercentile(99) / 1000.0);
+        snap.setCompleted(totalCompleted);
+        snap.setErrors(totalErrors);
+        if (shareIntervals) snap.setLatencyCounts(intervalScratch.toSparseCounts());
+        return snap;
+    }
+
+    private int ringIndex(long nowNanos) {
+        return (int) (((nowNanos - startNanos) / intervalNanos) % RING_SIZE);
+    }
+
+    private static final class Interval {
+        final ConcurrentLatencyHistogram[] latencies;
+        final LongAdder errors = new LongAdder();
+        // The interval the bucket was last cleared for; only the reader thread touches it
+        long stamp;
+
+        Interval(int stripes) {
+            latencies = new ConcurrentLatencyHistogram[stripes];
+            for (int i = 0; i < stripes; i++) {
+                latencies[i] = new ConcurrentLatencyHistogram();
+            }
+        }
+
+        void reset(long interval) {
+            for (ConcurrentLatencyHistogram h : latencies) {
+                h.reset();
+            }
+            errors.reset();
+            stamp = interval;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.sqlstresstool.service;
+
+public enum LoadMode {
+    CLOSED_LOOP,
+    TIMED,
+    CONSTANT_RATE,
+    ADAPTIVE
+}
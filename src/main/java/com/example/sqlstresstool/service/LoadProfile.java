@@ -0,0 +1,95 @@
+package com.example.sqlstresstool.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses a multi-stage load profile, one stage per line:
+ * <pre>
+ *   warmup 30s concurrency=10                    excluded from the totals
+ *   step 30s concurrency=10..100 step=10         30s at each step
+ *   ramp 60s rate=100..1000                      linear, one continuous run
+ *   hold 120s concurrency=100
+ *   knee 20s concurrency=10..400 step=10 p99=50 errors=1
+ * </pre>
+ * A knee stage keeps stepping up until p99 (ms) or the error rate (%) exceeds its limit.
+ */
+public final class LoadProfile {
+
+    private LoadProfile() {
+    }
+
+    public static List<LoadStage> parse(String profile) {
+        List<LoadStage> stages = new ArrayList<>();
+        if (profile == null) return stages;
+        for (String line : profile.split("\\R")) {
+            String spec = line.trim();
+            if (spec.isEmpty() || spec.startsWith("#")) continue;
+            try {
+                stages.add(parseStage(spec));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid profile stage '" + spec + "': " + e.getMessage(), e);
+            }
+        }
+        return stages;
+    }
+
+    private static LoadStage parseStage(String spec) {
+        String[] tokens = spec.split("\\s+");
+        if (tokens.length < 3) {
+            throw new IllegalArgumentException("expected '<kind> <duration> concurrency=..|rate=..'");
+        }
+        LoadStage.Kind kind;
+        try {
+            kind = LoadStage.Kind.valueOf(tokens[0].toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown stage kind '" + tokens[0] + "'");
+        }
+        int durationSeconds = parseDurationSeconds(tokens[1]);
+
+        Boolean rateBased = null;
+        double from = 0;
+        double to = 0;
+        double step = 0;
+        double p99 = 0;
+        double errors = 0;
+        for (int i = 2; i < tokens.length; i++) {
+            String[] kv = tokens[i].split("=", 2);
+            if (kv.length != 2) throw new IllegalArgumentException("expected key=value, got '" + tokens[i] + "'");
+            String key = kv[0].toLowerCase(Locale.ROOT);
+            switch (key) {
+                case "concurrency", "rate" -> {
+                    rateBased = key.equals("rate");
+                    String[] range = kv[1].split("\\.\\.", 2);
+                    from = Double.parseDouble(range[0]);
+                    to = range.length > 1 ? Double.parseDouble(range[1]) : from;
+                }
+                case "step" -> step = Double.parseDouble(kv[1]);
+                case "p99" -> p99 = Double.parseDouble(kv[1].replace("ms", ""));
+                case "errors" -> errors = Double.parseDouble(kv[1].replace("%", ""));
+                default -> throw new IllegalArgumentException("unknown key '" + kv[0] + "'");
+            }
+        }
+        if (rateBased == null) throw new IllegalArgumentException("concurrency= or rate= is required");
+        if (from <= 0 || to < from) throw new IllegalArgumentException("load range must be positive and ascending");
+        if (kind == LoadStage.Kind.STEP || kind == LoadStage.Kind.KNEE) {
+            if (step <= 0) step = to > from ? to - from : 1;
+            if (kind == LoadStage.Kind.KNEE && p99 <= 0 && errors <= 0) {
+                throw new IllegalArgumentException("knee needs a p99= and/or errors= limit");
+            }
+        }
+        return new LoadStage(kind, durationSeconds, rateBased, from, to, step, p99, errors);
+    }
+
+    static int parseDurationSeconds(String token) {
+        String t = token.toLowerCase(Locale.ROOT);
+        int seconds;
+        if (t.endsWith("h")) seconds = Integer.parseInt(t.substring(0, t.length() - 1)) * 3600;
+        else if (t.endsWith("m")) seconds = Integer.parseInt(t.substring(0, t.length() - 1)) * 60;
+        else if (t.endsWith("s")) seconds = Integer.parseInt(t.substring(0, t.length() - 1));
+        else seconds = Integer.parseInt(t);
+        if (seconds < 1) throw new IllegalArgumentException("duration must be at least 1s");
+        return seconds;
+    }
+}
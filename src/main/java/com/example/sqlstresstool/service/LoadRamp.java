@@ -0,0 +1,40 @@
+package com.example.sqlstresstool.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The linear ramp stage of a load profile, run as a single run with one set of workers. A concurrency ramp
+ * starts the peak number of workers and, like the adaptive limiter, lets only those below the current limit
+ * run; the limit rises with elapsed time. A rate ramp places operation n where the rising rate has
+ * accumulated n operations, so the open-loop schedule speeds up smoothly instead of once a second.
+ */
+public class LoadRamp {
+
+    private final LoadStage.Load from;
+    private final LoadStage.Load to;
+    private final long durationNanos;
+
+    public LoadRamp(LoadStage stage) {
+        this.from = stage.rampStart();
+        this.to = stage.rampEnd();
+        this.durationNanos = TimeUnit.SECONDS.toNanos(stage.getDurationSeconds());
+    }
+
+    /** The load the run is started with: the peak concurrency, or the mean rate, which gives the ramp's operations. */
+    public LoadStage.Load getRunLoad() {
+        return to.rate() > 0 ? new LoadStage.Load(0, (from.rate() + to.rate()) / 2) : to;
+    }
+
+    public boolean permits(int workerSlot, long elapsedNanos) {
+        double fraction = Math.min(1.0, (double) elapsedNanos / durationNanos);
+        return workerSlot < Math.max(1, Math.round(from.concurrency() + (to.concurrency() - from.concurrency()) * fraction));
+    }
+
+    /** Solves r0 t + (r1 - r0) t^2 / 2T = n for t, in the form that stays exact when the rates are equal. */
+    public long intendedOffsetNanos(long op) {
+        double r0 = from.rate();
+        double a = (to.rate() - r0) * TimeUnit.SECONDS.toNanos(1) / (2.0 * durationNanos);
+        double seconds = 2.0 * op / (r0 + Math.sqrt(r0 * r0 + 4 * a * op));
+        return (long) (seconds * TimeUnit.SECONDS.toNanos(1));
+    }
+}
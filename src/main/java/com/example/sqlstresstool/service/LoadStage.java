@@ -0,0 +1,90 @@
+package com.example.sqlstresstool.service;
+
+/**
+ * One line of a {@link LoadProfile}. Load is expressed either as concurrency (closed loop)
+ * or as a target rate (open loop), optionally ranging from/to with a step size.
+ */
+public class LoadStage {
+
+    public enum Kind {
+        WARMUP,
+        HOLD,
+        STEP,
+        RAMP,
+        KNEE
+    }
+
+    public record Load(int concurrency, double rate) {
+        public String describe() {
+            return rate > 0 ? String.format("%.0f/s", rate) : "c=" + concurrency;
+        }
+    }
+
+    private final Kind kind;
+    private final int durationSeconds;
+    private final boolean rateBased;
+    private final double from;
+    private final double to;
+    private final double step;
+    private final double p99LimitMs;
+    private final double errorLimitPercent;
+
+    LoadStage(Kind kind, int durationSeconds, boolean rateBased, double from, double to, double step,
+              double p99LimitMs, double errorLimitPercent) {
+        this.kind = kind;
+        this.durationSeconds = durationSeconds;
+        this.rateBased = rateBased;
+        this.from = from;
+        this.to = to;
+        this.step = step;
+        this.p99LimitMs = p99LimitMs;
+        this.errorLimitPercent = errorLimitPercent;
+    }
+
+    public Kind getKind() { return kind; }
+    public int getDurationSeconds() { return durationSeconds; }
+    public boolean isRateBased() { return rateBased; }
+    public double getP99LimitMs() { return p99LimitMs; }
+    public double getErrorLimitPercent() { return errorLimitPercent; }
+
+    public boolean isWarmup() {
+        return kind == Kind.WARMUP;
+    }
+
+    public boolean isLinearRamp() {
+        return kind == Kind.RAMP;
+    }
+
+    public int getStepCount() {
+        if (kind == Kind.STEP || kind == Kind.KNEE) {
+            return (int) Math.floor((to - from) / step) + 1;
+        }
+        return 1;
+    }
+
+    public int getStepSeconds() {
+        return durationSeconds;
+    }
+
+    public Load loadAt(int stepIndex) {
+        double value = Math.min(to, from + stepIndex * step);
+        return toLoad(value);
+    }
+
+    public Load rampStart() {
+        return toLoad(from);
+    }
+
+    public Load rampEnd() {
+        return toLoad(to);
+    }
+
+    public boolean withinLimits(double p99Ms, double errorRate) {
+        if (p99LimitMs > 0 && p99Ms > p99LimitMs) return false;
+        return !(errorLimitPercent > 0 && errorRate * 100.0 > errorLimitPercent);
+    }
+
+    private Load toLoad(double value) {
+        return rateBased ? new Load(0, Math.max(0.1, value)) : new Load(Math.max(1, (int) Math.round(value)), 0);
+    }
+}
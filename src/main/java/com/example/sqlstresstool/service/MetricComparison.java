@@ -0,0 +1,33 @@
+package com.example.sqlstresstool.service;
+
+/** One metric of a baseline comparison. Higher is worse for latency and errors, lower is worse for throughput. */
+public class MetricComparison {
+    private String metric;
+    private double baseline;
+    private double candidate;
+    private double changePercent;
+    private boolean significant;
+    private boolean regression;
+    private String note;
+
+    public MetricComparison() {
+    }
+
+    MetricComparison(String metric, double baseline, double candidate, boolean significant, boolean regression, String note) {
+        this.metric = metric;
+        this.baseline = baseline;
+        this.candidate = candidate;
+        this.changePercent = baseline != 0 ? 100.0 * (candidate - baseline) / baseline : 0;
+        this.significant = significant;
+        this.regression = regression;
+        this.note = note;
+    }
+
+    public String getMetric() { return metric; }
+    public double getBaseline() { return baseline; }
+    public double getCandidate() { return candidate; }
+    public double getChangePercent() { return changePercent; }
+    public boolean isSignificant() { return significant; }
+    public boolean isRegression() { return regression; }
+    public String getNote() { return note; }
+}
@@ -0,0 +1,12 @@
+package com.example.sqlstresstool.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Produces the value for one {@code ?} placeholder. Implementations are shared by all workers
+ * and must be thread-safe; numeric generators bind primitives so nothing is boxed per call.
+ */
+public interface ParameterGenerator {
+    void bind(PreparedStatement ps, int index) throws SQLException;
+}
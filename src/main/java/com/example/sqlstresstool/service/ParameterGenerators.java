@@ -0,0 +1,240 @@
+package com.example.sqlstresstool.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parses parameter specs, one per line, bound to the statement's placeholders in order:
+ * <pre>
+ *   seq:1:1000          sequential values, wrapping around
+ *   random:1:1000       uniform random long
+ *   zipf:1:100000:1.1   Zipfian long, lower values hottest (exponent defaults to 1.0)
+ *   uuid                random UUID string
+ *   csv:keys.csv:2[:seq]   column 2 (1-based) of a CSV file, random row unless :seq
+ *   const:abc           fixed string
+ * </pre>
+ * CSV paths are resolved against the CSV directory, and paths leading outside it are rejected, since specs
+ * come from the web form and from coordinators.
+ */
+public final class ParameterGenerators {
+
+    private ParameterGenerators() {
+    }
+
+    public static List<ParameterGenerator> parse(String specs, Path csvDirectory) {
+        List<ParameterGenerator> generators = new ArrayList<>();
+        if (specs == null) return generators;
+        for (String line : specs.split("\\R")) {
+            String spec = line.trim();
+            if (spec.isEmpty() || spec.startsWith("#")) continue;
+            generators.add(parseOne(spec, csvDirectory));
+        }
+        return generators;
+    }
+
+    static ParameterGenerator parseOne(String spec, Path csvDirectory) {
+        String[] parts = spec.split(":");
+        String kind = parts[0].trim().toLowerCase(Locale.ROOT);
+        try {
+            switch (kind) {
+                case "seq":
+                    return new Sequential(parseLong(parts, 1), parseLong(parts, 2));
+                case "random":
+                    return new UniformRandom(parseLong(parts, 1), parseLong(parts, 2));
+                case "zipf":
+                    double exponent = parts.length > 3 ? Double.parseDouble(parts[3]) : 1.0;
+                    return new Zipf(parseLong(parts, 1), parseLong(parts, 2), exponent);
+                case "uuid":
+                    return (ps, index) -> ps.setString(index, UUID.randomUUID().toString());
+                case "const":
+                    String value = spec.substring(spec.indexOf(':') + 1);
+                    return (ps, index) -> ps.setString(index, value);
+                case "csv":
+                    return CsvValues.load(spec, csvDirectory);
+                default:
+                    throw new IllegalArgumentException("Unknown parameter generator '" + kind + "'");
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid parameter spec '" + spec + "'", e);
+        }
+    }
+
+    private static long parseLong(String[] parts, int i) {
+        return Long.parseLong(parts[i].trim());
+    }
+
+    private static void checkRange(long min, long max) {
+        if (max < min) throw new IllegalArgumentException("max must be >= min");
+    }
+
+    static final class Sequential implements ParameterGenerator {
+        private final long min;
+        private final long span;
+        private final AtomicLong next = new AtomicLong();
+
+        Sequential(long min, long max) {
+            checkRange(min, max);
+            this.min = min;
+            this.span = max - min + 1;
+        }
+
+        @Override
+        public void bind(PreparedStatement ps, int index) throws SQLException {
+            ps.setLong(index, min + Math.floorMod(next.getAndIncrement(), span));
+        }
+    }
+
+    static final class UniformRandom implements ParameterGenerator {
+        private final long min;
+        private final long maxExclusive;
+
+        UniformRandom(long min, long max) {
+            checkRange(min, max);
+            this.min = min;
+            this.maxExclusive = max + 1;
+        }
+
+        @Override
+        public void bind(PreparedStatement ps, int index) throws SQLException {
+            ps.setLong(index, ThreadLocalRandom.current().nextLong(min, maxExclusive));
+        }
+    }
+
+    /**
+     * Zipf sampling by rejection-inversion (Hörmann and Derflinger), O(1) per sample
+     * with no precomputed tables, so very large key ranges are fine.
+     */
+    static final class Zipf implements ParameterGenerator {
+        private final long min;
+        private final long n;
+        private final double exponent;
+        private final double hIntegralX1;
+        private final double hIntegralN;
+        private final double s;
+
+        Zipf(long min, long max, double exponent) {
+            checkRange(min, max);
+            if (exponent <= 0) throw new IllegalArgumentException("zipf exponent must be > 0");
+            this.min = min;
+            this.n = max - min + 1;
+            this.exponent = exponent;
+            this.hIntegralX1 = hIntegral(1.5) - 1.0;
+            this.hIntegralN = hIntegral(n + 0.5);
+            this.s = 2.0 - hIntegralInverse(hIntegral(2.5) - h(2.0));
+        }
+
+        @Override
+        public void bind(PreparedStatement ps, int index) throws SQLException {
+            ps.setLong(index, min + sample() - 1);
+        }
+
+        long sample() {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            while (true) {
+                double u = hIntegralN + rnd.nextDouble() * (hIntegralX1 - hIntegralN);
+                double x = hIntegralInverse(u);
+                long k = (long) (x + 0.5);
+                if (k < 1) k = 1;
+                else if (k > n) k = n;
+                if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                    return k;
+                }
+            }
+        }
+
+        private double hIntegral(double x) {
+            double logX = Math.log(x);
+            return helper2((1.0 - exponent) * logX) * logX;
+        }
+
+        private double h(double x) {
+            return Math.exp(-exponent * Math.log(x));
+        }
+
+        private double hIntegralInverse(double x) {
+            double t = x * (1.0 - exponent);
+            if (t < -1.0) t = -1.0;
+            return Math.exp(helper1(t) * x);
+        }
+
+        private static double helper1(double x) {
+            return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1.0 - x * (0.5 - x * (1.0 / 3.0 - 0.25 * x));
+        }
+
+        private static double helper2(double x) {
+            return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1.0 + x * 0.5 * (1.0 + x / 3.0 * (1.0 + 0.25 * x));
+        }
+    }
+
+    static final class CsvValues implements ParameterGenerator {
+        private final String[] values;
+        private final boolean sequential;
+        private final AtomicLong next = new AtomicLong();
+
+        private CsvValues(String[] values, boolean sequential) {
+            this.values = values;
+            this.sequential = sequential;
+        }
+
+        static CsvValues load(String spec, Path csvDirectory) {
+            // csv:<path>:<column>[:seq] - the path may itself contain ':' (e.g. C:\\data\\csv\\keys.csv)
+            String body = spec.substring(spec.indexOf(':') + 1);
+            boolean sequential = false;
+            if (body.toLowerCase(Locale.ROOT).endsWith(":seq")) {
+                sequential = true;
+                body = body.substring(0, body.length() - 4);
+            }
+            int column = 1;
+            int lastColon = body.lastIndexOf(':');
+            if (lastColon > 0 && body.substring(lastColon + 1).trim().matches("\\d+")) {
+                column = Integer.parseInt(body.substring(lastColon + 1).trim());
+                body = body.substring(0, lastColon);
+            }
+            if (column < 1) throw new IllegalArgumentException("CSV column is 1-based");
+
+            Path directory = csvDirectory.toAbsolutePath().normalize();
+            Path file = directory.resolve(body.trim()).normalize();
+            if (!file.startsWith(directory)) {
+                throw new IllegalArgumentException("CSV file '" + body.trim() + "' is outside the CSV directory " + directory);
+            }
+            List<String> values = new ArrayList<>();
+            try {
+                // A symbolic link inside the directory must not lead out of it either
+                if (!file.toRealPath().startsWith(directory.toRealPath())) {
+                    throw new IllegalArgumentException("CSV file '" + body.trim() + "' is outside the CSV directory " + directory);
+                }
+                for (String row : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    if (row.isBlank()) continue;
+                    String[] cells = row.split(",", -1);
+                    if (cells.length >= column) {
+                        values.add(cells[column - 1].trim());
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot read CSV file '" + body.trim() + "': " + e.getMessage(), e);
+            }
+            if (values.isEmpty()) {
+                throw new IllegalArgumentException("CSV file '" + body.trim() + "' has no values in column " + column);
+            }
+            return new CsvValues(values.toArray(new String[0]), sequential);
+        }
+
+        @Override
+        public void bind(PreparedStatement ps, int index) throws SQLException {
+            int i = sequential
+                    ? (int) Math.floorMod(next.getAndIncrement(), (long) values.length)
+                    : ThreadLocalRandom.current().nextInt(values.length);
+            ps.setString(index, values[i]);
+        }
+    }
+}
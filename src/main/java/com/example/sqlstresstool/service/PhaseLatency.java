@@ -0,0 +1,53 @@
+package com.example.sqlstresstool.service;
+
+import java.util.List;
+
+/** Latency of one phase of an operation: pool acquire, execute until first result, row fetch, or commit. */
+public class PhaseLatency {
+
+    public static final String ACQUIRE = "Connection acquire";
+    public static final String EXECUTE = "Execute to first result";
+    public static final String FETCH = "Row fetch";
+    public static final String COMMIT = "Commit";
+
+    private String name;
+    private LatencyHistogram histogram;
+    private long count;
+    private double avgMs;
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+    private double maxMs;
+    private double sharePercent;
+
+    public static PhaseLatency of(String name, LatencyHistogram histogram) {
+        PhaseLatency phase = new PhaseLatency();
+        phase.name = name;
+        phase.histogram = histogram;
+        phase.count = histogram.getTotalCount();
+        phase.avgMs = histogram.getMeanMicros() / 1000.0;
+        phase.p50Ms = histogram.getValueAtPercentile(50) / 1000.0;
+        phase.p95Ms = histogram.getValueAtPercentile(95) / 1000.0;
+        phase.p99Ms = histogram.getValueAtPercentile(99) / 1000.0;
+        phase.maxMs = histogram.getMaxMicros() / 1000.0;
+        return phase;
+    }
+
+    /** Fills in each phase's share of the total time spent across all phases. */
+    public static List<PhaseLatency> withShares(List<PhaseLatency> phases) {
+        double total = 0;
+        for (PhaseLatency p : phases) total += p.avgMs * p.count;
+        for (PhaseLatency p : phases) p.sharePercent = total > 0 ? 100.0 * p.avgMs * p.count / total : 0;
+        return phases;
+    }
+
+    public String getName() { return name; }
+    public LatencyHistogram getHistogram() { return histogram; }
+    public long getCount() { return count; }
+    public double getAvgMs() { return avgMs; }
+    public double getP50Ms() { return p50Ms; }
+    public double getP95Ms() { return p95Ms; }
+    public double getP99Ms() { return p99Ms; }
+    public double getMaxMs() { return maxMs; }
+    public double getSharePercent() { return sharePercent; }
+}
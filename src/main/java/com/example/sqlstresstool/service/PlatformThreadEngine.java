@@ -0,0 +1,70 @@
+package com.example.sqlstresstool.service;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed pool of {@code concurrency} platform threads. Each task claims a free worker slot for as long as it
+ * runs, rather than the slot being tied to a thread: the pool replaces a thread that dies while the old one
+ * is still unwinding, and the two must not share per-slot state.
+ */
+public class PlatformThreadEngine implements ExecutionEngine {
+
+    private final ExecutorService pool;
+    private final Queue<Integer> freeSlots = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger liveThreads = new AtomicInteger();
+    private final AtomicInteger peakThreads = new AtomicInteger();
+
+    public PlatformThreadEngine(int concurrency) {
+        for (int i = 0; i < concurrency; i++) {
+            freeSlots.add(i);
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(concurrency,
+                r -> new WorkerThread(r, "stress-worker-" + threadNumber.getAndIncrement()));
+    }
+
+    @Override
+    public EngineType getType() { return EngineType.PLATFORM; }
+
+    @Override
+    public int getPeakPlatformThreads() { return peakThreads.get(); }
+
+    @Override
+    public void submit(WorkerTask task) {
+        pool.execute(() -> {
+            // At most concurrency tasks run at once, and each frees its slot before the next can start
+            int slot = freeSlots.remove();
+            try {
+                task.run(slot);
+            } finally {
+                freeSlots.add(slot);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private final class WorkerThread extends Thread {
+
+        WorkerThread(Runnable r, String name) {
+            super(r, name);
+        }
+
+        @Override
+        public void run() {
+            peakThreads.accumulateAndGet(liveThreads.incrementAndGet(), Math::max);
+            try {
+                super.run();
+            } finally {
+                liveThreads.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.sqlstresstool.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Samples the HikariCP pool gauges on a background thread while a run is in progress,
+ * so pool exhaustion shows up even when the pool has drained again by the time the run ends.
+ */
+public class PoolMonitor {
+
+    private static final long SAMPLE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final HikariDataSource hikari;
+    private final Thread sampler;
+    private volatile boolean running = true;
+
+    private long samples;
+    private long samplesWithWaiters;
+    private long awaitingSum;
+    private int maxAwaiting;
+    private long activeSum;
+    private int maxActive;
+    private int maxTotal;
+
+    private PoolMonitor(DataSource dataSource) {
+        this.hikari = dataSource instanceof HikariDataSource h ? h : null;
+        if (hikari == null) {
+            this.sampler = null;
+            return;
+        }
+        this.sampler = new Thread(this::sampleLoop, "pool-monitor");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    public static PoolMonitor start(DataSource dataSource) {
+        return new PoolMonitor(dataSource);
+    }
+
+    /** Stops sampling; returns null when the DataSource is not HikariCP. */
+    public PoolUsage finish() {
+        if (sampler == null) return null;
+        running = false;
+        LockSupport.unpark(sampler);
+        try {
+            sampler.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sample();
+
+        PoolUsage usage = new PoolUsage();
+        usage.setSamples(samples);
+        usage.setMaxAwaiting(maxAwaiting);
+        usage.setAvgAwaiting(samples > 0 ? (double) awaitingSum / samples : 0);
+        usage.setWaitingSamplePercent(samples > 0 ? 100.0 * samplesWithWaiters / samples : 0);
+        usage.setMaxActive(maxActive);
+        usage.setAvgActive(samples > 0 ? (double) activeSum / samples : 0);
+        usage.setMaxTotal(maxTotal);
+        usage.setMaximumPoolSize(hikari.getMaximumPoolSize());
+        return usage;
+    }
+
+    private void sampleLoop() {
+        while (running) {
+            sample();
+            LockSupport.parkNanos(SAMPLE_INTERVAL_NANOS);
+        }
+    }
+
+    private void sample() {
+        HikariPoolMXBean pool;
+        try {
+            pool = hikari.getHikariPoolMXBean();
+        } catch (Exception e) {
+            return;
+        }
+        if (pool == null) return;
+        int awaiting = pool.getThreadsAwaitingConnection();
+        int active = pool.getActiveConnections();
+        samples++;
+        if (awaiting > 0) samplesWithWaiters++;
+        awaitingSum += awaiting;
+        activeSum += active;
+        maxAwaiting = Math.max(maxAwaiting, awaiting);
+        maxActive = Math.max(maxActive, active);
+        maxTotal = Math.max(maxTotal, pool.getTotalConnections());
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.sqlstresstool.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Pool-size sweep: the same request run once per combination of maximum pool size, concurrency and,
+ * optionally, connection timeout, each given as a comma-separated list. Before every cell the live pool is
+ * resized to a fixed size, its connections are evicted and it is refilled, so each cell starts warm.
+ * Keepalive, like the other settings HikariCP seals at startup, cannot change on a running pool and is not swept.
+ */
+public final class PoolSweep {
+
+    static final double PEAK_SHARE = 0.95;
+    static final double MAX_ERROR_RATE = 0.01;
+    private static final int MAX_CELLS = 200;
+    private static final long MIN_CONNECTION_TIMEOUT_MS = 250;
+
+    record Step(int poolSize, int concurrency, Long connectionTimeoutMs) {
+    }
+
+    private PoolSweep() {
+    }
+
+    public static boolean isRequested(StressRequest req) {
+        return !isBlank(req.getSweepPoolSizes()) || !isBlank(req.getSweepConcurrency())
+                || !isBlank(req.getSweepConnectionTimeouts());
+    }
+
+    /** The grid, pool size outermost; a list left empty keeps the current pool size, concurrency or timeout. */
+    static List<Step> steps(StressRequest req, int currentPoolSize) {
+        List<Long> pools = parse(req.getSweepPoolSizes(), "pool size", 1);
+        List<Long> concurrencies = parse(req.getSweepConcurrency(), "concurrency", 1);
+        List<Long> timeouts = parse(req.getSweepConnectionTimeouts(), "connection timeout", MIN_CONNECTION_TIMEOUT_MS);
+        if (pools.isEmpty()) pools.add((long) currentPoolSize);
+        if (concurrencies.isEmpty()) concurrencies.add((long) Math.max(1, req.getConcurrency()));
+        if (timeouts.isEmpty()) timeouts.add(null);
+        long cells = (long) pools.size() * concurrencies.size() * timeouts.size();
+        if (cells > MAX_CELLS) {
+            throw new IllegalArgumentException("Pool sweep has " + cells + " cells, at most " + MAX_CELLS + " are allowed");
+        }
+        List<Step> steps = new ArrayList<>();
+        for (Long pool : pools) {
+            for (Long concurrency : concurrencies) {
+                for (Long timeout : timeouts) {
+                    steps.add(new Step(pool.intValue(), concurrency.intValue(), timeout));
+                }
+            }
+        }
+        return steps;
+    }
+
+    private static List<Long> parse(String list, String what, long min) {
+        List<Long> values = new ArrayList<>();
+        if (isBlank(list)) return values;
+        for (String part : list.split(",")) {
+            if (part.isBlank()) continue;
+            long v;
+            try {
+                v = Long.parseLong(part.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid sweep " + what + " '" + part.trim() + "'");
+            }
+            if (v < min || v > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Sweep " + what + " must be at least " + min + ", got " + v);
+            }
+            if (!values.contains(v)) values.add(v);
+        }
+        values.sort(Comparator.naturalOrder());
+        return values;
+    }
+
+    /**
+     * Makes the pool a fixed-size pool of the step's size and refills it: evicting closes the idle
+     * connections, borrowing the full size at once forces the new ones to be opened before the cell starts.
+     */
+    static void apply(HikariDataSource hikari, Step step) throws SQLException {
+        hikari.setMaximumPoolSize(step.poolSize());
+        hikari.setMinimumIdle(step.poolSize());
+        if (step.connectionTimeoutMs() != null) hikari.setConnectionTimeout(step.connectionTimeoutMs());
+        evict(hikari);
+        List<Connection> held = new ArrayList<>(step.poolSize());
+        try {
+            for (int i = 0; i < step.poolSize(); i++) {
+                held.add(hikari.getConnection());
+            }
+        } finally {
+            for (Connection c : held) {
+                c.close();
+            }
+        }
+    }
+
+    static void restore(HikariDataSource hikari, int maxPoolSize, int minIdle, long connectionTimeoutMs) {
+        hikari.setMaximumPoolSize(maxPoolSize);
+        hikari.setMinimumIdle(minIdle);
+        hikari.setConnectionTimeout(connectionTimeoutMs);
+        evict(hikari);
+    }
+
+    // The pool starts on the first borrow; before that there is nothing to evict
+    private static void evict(HikariDataSource hikari) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool != null) pool.softEvictConnections();
+    }
+
+    /**
+     * Recommends the smallest pool whose best cell reaches {@link #PEAK_SHARE} of the peak throughput, among
+     * cells with at most 1% errors (all cells when none qualifies); beyond it extra connections only queue
+     * more work at the server.
+     */
+    static void recommend(List<SweepCell> cells, StressResult res) {
+        double maxErrorRate = cells.stream().anyMatch(c -> c.getErrorRate() <= MAX_ERROR_RATE) ? MAX_ERROR_RATE : 1;
+        SweepCell peak = null;
+        for (SweepCell c : cells) {
+            if (c.getErrorRate() <= maxErrorRate && (peak == null || c.getThroughput() > peak.getThroughput())) peak = c;
+        }
+        if (peak == null || peak.getThroughput() <= 0) return;
+        SweepCell best = null;
+        for (SweepCell c : cells) {
+            if (c.getErrorRate() > maxErrorRate || c.getThroughput() < peak.getThroughput() * PEAK_SHARE) continue;
+            if (best == null || c.getPoolSize() < best.getPoolSize()
+                    || c.getPoolSize() == best.getPoolSize() && c.getThroughput() > best.getThroughput()) {
+                best = c;
+            }
+        }
+        best.setRecommended(true);
+        res.setRecommendedPoolSize(best.getPoolSize());
+        res.setRecommendedConcurrency(best.getConcurrency());
+        res.setRecommendation(String.format(Locale.ROOT,
+                "Pool size %d at concurrency %d reaches %.0f%% of the peak %.1f ops/s (pool %d, concurrency %d); "
+                        + "p99 %.2f ms, connection wait p99 %.2f ms.",
+                best.getPoolSize(), best.getConcurrency(), best.getThroughput() * 100 / peak.getThroughput(),
+                peak.getThroughput(), peak.getPoolSize(), peak.getConcurrency(), best.getP99Ms(), best.getAcquireP99Ms()));
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+}
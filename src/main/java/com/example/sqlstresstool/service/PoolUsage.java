@@ -0,0 +1,36 @@
+package com.example.sqlstresstool.service;
+
+public class PoolUsage {
+    private long samples;
+    private int maxAwaiting;
+    private double avgAwaiting;
+    private double waitingSamplePercent;
+    private int maxActive;
+    private double avgActive;
+    private int maxTotal;
+    private int maximumPoolSize;
+
+    public long getSamples() { return samples; }
+    public void setSamples(long samples) { this.samples = samples; }
+
+    public int getMaxAwaiting() { return maxAwaiting; }
+    public void setMaxAwaiting(int maxAwaiting) { this.maxAwaiting = maxAwaiting; }
+
+    public double getAvgAwaiting() { return avgAwaiting; }
+    public void setAvgAwaiting(double avgAwaiting) { this.avgAwaiting = avgAwaiting; }
+
+    public double getWaitingSamplePercent() { return waitingSamplePercent; }
+    public void setWaitingSamplePercent(double waitingSamplePercent) { this.waitingSamplePercent = waitingSamplePercent; }
+
+    public int getMaxActive() { return maxActive; }
+    public void setMaxActive(int maxActive) { this.maxActive = maxActive; }
+
+    public double getAvgActive() { return avgActive; }
+    public void setAvgActive(double avgActive) { this.avgActive = avgActive; }
+
+    public int getMaxTotal() { return maxTotal; }
+    public void setMaxTotal(int maxTotal) { this.maxTotal = maxTotal; }
+
+    public int getMaximumPoolSize() { return maximumPoolSize; }
+    public void setMaximumPoolSize(int maximumPoolSize) { this.maximumPoolSize = maximumPoolSize; }
+}
@@ -0,0 +1,25 @@
+package com.example.sqlstresstool.service;
+
+/**
+ * How mssql-jdbc turns a PreparedStatement into server calls.
+ */
+public enum PrepareMethod {
+    // Driver default: sp_executesql on first use, sp_prepexec once the statement is reused
+    EXECUTESQL_FIRST("prepexec", false),
+    // sp_prepexec from the very first execution
+    PREPEXEC("prepexec", true),
+    // Separate sp_prepare round trip followed by sp_execute
+    PREPARE("prepare", true);
+
+    private final String driverValue;
+    private final boolean prepareOnFirstCall;
+
+    PrepareMethod(String driverValue, boolean prepareOnFirstCall) {
+        this.driverValue = driverValue;
+        this.prepareOnFirstCall = prepareOnFirstCall;
+    }
+
+    public String getDriverValue() { return driverValue; }
+
+    public boolean isPrepareOnFirstCall() { return prepareOnFirstCall; }
+}
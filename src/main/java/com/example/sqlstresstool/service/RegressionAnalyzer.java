@@ -0,0 +1,156 @@
+package com.example.sqlstresstool.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares a run against a baseline. A metric is flagged only when the difference is both statistically
+ * significant at 95% and larger than the tolerance, so noise on a long run and big swings on a short one
+ * are not reported as regressions.
+ * <ul>
+ *   <li>Percentiles: distribution-free confidence interval on the order statistic, read from the histogram;
+ *       significant when the intervals do not overlap.</li>
+ *   <li>Mean latency and throughput: Welch's t-test (throughput over the per-second samples).</li>
+ *   <li>Error rate: two-proportion z-test.</li>
+ * </ul>
+ */
+public final class RegressionAnalyzer {
+
+    static final int MIN_SAMPLES = 30;
+    private static final double Z_95 = 1.96;
+    // Two-sided 95% Student t critical values for 1..30 degrees of freedom
+    private static final double[] T_95 = {12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042};
+    private static final double[] PERCENTILES = {50, 95, 99};
+
+    private RegressionAnalyzer() {
+    }
+
+    public static RegressionVerdict compare(RunRecord baseline, RunRecord candidate, double tolerancePercent) {
+        RegressionVerdict verdict = new RegressionVerdict();
+        verdict.setBaselineId(baseline.getId());
+        verdict.setCandidateId(candidate.getId());
+        verdict.setTolerancePercent(tolerancePercent);
+
+        LatencyHistogram base = LatencyHistogram.fromSparseCounts(baseline.getHistogram());
+        LatencyHistogram cand = LatencyHistogram.fromSparseCounts(candidate.getHistogram());
+        List<MetricComparison> metrics = new ArrayList<>();
+        verdict.setMetrics(metrics);
+        if (base.getTotalCount() < MIN_SAMPLES || cand.getTotalCount() < MIN_SAMPLES) {
+            verdict.setOutcome(RegressionVerdict.Outcome.INSUFFICIENT_DATA);
+            return verdict;
+        }
+
+        double tolerance = tolerancePercent / 100.0;
+        metrics.add(throughput(baseline, candidate, tolerance));
+        metrics.add(meanLatency(base, cand, tolerance));
+        for (double p : PERCENTILES) {
+            metrics.add(percentile(p, base, cand, tolerance));
+        }
+        metrics.add(errorRate(baseline, candidate, tolerance));
+
+        boolean regression = metrics.stream().anyMatch(MetricComparison::isRegression);
+        verdict.setOutcome(regression ? RegressionVerdict.Outcome.REGRESSION : RegressionVerdict.Outcome.PASS);
+        return verdict;
+    }
+
+    private static MetricComparison throughput(RunRecord baseline, RunRecord candidate, double tolerance) {
+        double[] a = steadyIntervals(baseline.getIntervalThroughput());
+        double[] b = steadyIntervals(candidate.getIntervalThroughput());
+        if (a.length < 3 || b.length < 3) {
+            return new MetricComparison("throughput (ops/s)", baseline.getThroughput(), candidate.getThroughput(),
+                    false, false, "fewer than 3 one-second intervals, not tested");
+        }
+        double meanA = mean(a);
+        double meanB = mean(b);
+        double se = Math.sqrt(variance(a, meanA) / a.length + variance(b, meanB) / b.length);
+        boolean significant = significantWelch(meanA, meanB, se, variance(a, meanA), a.length, variance(b, meanB), b.length);
+        boolean regression = significant && meanB < meanA * (1 - tolerance);
+        return new MetricComparison("throughput (ops/s)", meanA, meanB, significant, regression, null);
+    }
+
+    private static MetricComparison meanLatency(LatencyHistogram a, LatencyHistogram b, double tolerance) {
+        double meanA = a.getMeanMicros() / 1000.0;
+        double meanB = b.getMeanMicros() / 1000.0;
+        double varA = Math.pow(a.getStdDevMicros() / 1000.0, 2);
+        double varB = Math.pow(b.getStdDevMicros() / 1000.0, 2);
+        double se = Math.sqrt(varA / a.getTotalCount() + varB / b.getTotalCount());
+        boolean significant = significantWelch(meanA, meanB, se, varA, a.getTotalCount(), varB, b.getTotalCount());
+        boolean regression = significant && meanB > meanA * (1 + tolerance);
+        return new MetricComparison("mean latency (ms)", meanA, meanB, significant, regression, null);
+    }
+
+    private static MetricComparison percentile(double p, LatencyHistogram a, LatencyHistogram b, double tolerance) {
+        double[] ciA = percentileInterval(a, p);
+        double[] ciB = percentileInterval(b, p);
+        double valueA = a.getValueAtPercentile(p) / 1000.0;
+        double valueB = b.getValueAtPercentile(p) / 1000.0;
+        boolean significant = ciB[0] > ciA[1] || ciB[1] < ciA[0];
+        boolean regression = significant && ciB[0] > ciA[1] && valueB > valueA * (1 + tolerance);
+        String label = "p" + (p == Math.rint(p) ? String.valueOf((long) p) : String.valueOf(p)) + " (ms)";
+        String note = String.format("95%% CI %.3f..%.3f vs %.3f..%.3f", ciA[0], ciA[1], ciB[0], ciB[1]);
+        return new MetricComparison(label, valueA, valueB, significant, regression, note);
+    }
+
+    private static MetricComparison errorRate(RunRecord baseline, RunRecord candidate, double tolerance) {
+        long nA = baseline.getSuccessCount() + baseline.getErrorCount();
+        long nB = candidate.getSuccessCount() + candidate.getErrorCount();
+        double rateA = nA == 0 ? 0 : (double) baseline.getErrorCount() / nA;
+        double rateB = nB == 0 ? 0 : (double) candidate.getErrorCount() / nB;
+        double pooled = (double) (baseline.getErrorCount() + candidate.getErrorCount()) / Math.max(1, nA + nB);
+        double se = Math.sqrt(pooled * (1 - pooled) * (1.0 / Math.max(1, nA) + 1.0 / Math.max(1, nB)));
+        boolean significant = se > 0 && Math.abs(rateB - rateA) / se > Z_95;
+        // Any significant rise from a zero-error baseline counts, otherwise apply the relative tolerance
+        boolean regression = significant && rateB > rateA && (rateA == 0 || rateB > rateA * (1 + tolerance));
+        return new MetricComparison("error rate (%)", rateA * 100, rateB * 100, significant, regression, null);
+    }
+
+    /** Rank-based 95% interval for the p-th percentile (normal approximation to the binomial). */
+    static double[] percentileInterval(LatencyHistogram h, double p) {
+        long n = h.getTotalCount();
+        double q = p / 100.0;
+        double half = Z_95 * Math.sqrt(n * q * (1 - q));
+        double lowRank = Math.max(1, Math.floor(n * q - half));
+        double highRank = Math.min(n, Math.ceil(n * q + half));
+        return new double[]{
+                h.getValueAtPercentile(100.0 * lowRank / n) / 1000.0,
+                h.getValueAtPercentile(100.0 * highRank / n) / 1000.0};
+    }
+
+    private static boolean significantWelch(double meanA, double meanB, double se,
+                                            double varA, long nA, double varB, long nB) {
+        if (se == 0) return meanA != meanB;
+        double t = Math.abs(meanB - meanA) / se;
+        double va = varA / nA;
+        double vb = varB / nB;
+        double df = (va + vb) * (va + vb) / (va * va / Math.max(1, nA - 1) + vb * vb / Math.max(1, nB - 1));
+        return t > tCritical(df);
+    }
+
+    private static double tCritical(double df) {
+        if (Double.isNaN(df) || df >= T_95.length) return Z_95;
+        return T_95[Math.max(0, (int) Math.floor(df) - 1)];
+    }
+
+    // The first and last intervals are usually partial, so they are left out
+    private static double[] steadyIntervals(double[] intervals) {
+        if (intervals == null || intervals.length <= 2) return new double[0];
+        double[] steady = new double[intervals.length - 2];
+        System.arraycopy(intervals, 1, steady, 0, steady.length);
+        return steady;
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double v : values) sum += v;
+        return sum / values.length;
+    }
+
+    private static double variance(double[] values, double mean) {
+        if (values.length < 2) return 0;
+        double sum = 0;
+        for (double v : values) sum += (v - mean) * (v - mean);
+        return sum / (values.length - 1);
+    }
+}
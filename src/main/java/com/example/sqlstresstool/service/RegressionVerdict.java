@@ -0,0 +1,31 @@
+package com.example.sqlstresstool.service;
+
+import java.util.List;
+
+public class RegressionVerdict {
+
+    public enum Outcome { PASS, REGRESSION, INSUFFICIENT_DATA }
+
+    private String candidateId;
+    private String baselineId;
+    private Outcome outcome;
+    private double tolerancePercent;
+    private List<MetricComparison> metrics;
+
+    public String getCandidateId() { return candidateId; }
+    public void setCandidateId(String candidateId) { this.candidateId = candidateId; }
+
+    public String getBaselineId() { return baselineId; }
+    public void setBaselineId(String baselineId) { this.baselineId = baselineId; }
+
+    public Outcome getOutcome() { return outcome; }
+    public void setOutcome(Outcome outcome) { this.outcome = outcome; }
+
+    public double getTolerancePercent() { return tolerancePercent; }
+    public void setTolerancePercent(double tolerancePercent) { this.tolerancePercent = tolerancePercent; }
+
+    public List<MetricComparison> getMetrics() { return metrics; }
+    public void setMetrics(List<MetricComparison> metrics) { this.metrics = metrics; }
+
+    public boolean isRegression() { return outcome == Outcome.REGRESSION; }
+}
@@ -0,0 +1,18 @@
+package com.example.sqlstresstool.service;
+
+/**
+ * mssql-jdbc responseBuffering: adaptive streams rows from the TDS packets as they are read,
+ * full buffers the whole response in client memory before the first row is returned.
+ */
+public enum ResponseBuffering {
+    ADAPTIVE("adaptive"),
+    FULL("full");
+
+    private final String driverValue;
+
+    ResponseBuffering(String driverValue) {
+        this.driverValue = driverValue;
+    }
+
+    public String getDriverValue() { return driverValue; }
+}
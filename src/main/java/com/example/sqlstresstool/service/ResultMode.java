@@ -3,5 +3,7 @@ package com.example.sqlstresstool.service;
 public enum ResultMode {
     NONE,
     SCALAR,
-    ROWS
+    ROWS,
+    // Read every row to the end with typed getters, without materializing values
+    DRAIN
 }
@@ -0,0 +1,38 @@
+package com.example.sqlstresstool.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries of throttling and transient failures with exponential backoff and full jitter. Deadlock victims
+ * can be given more attempts of their own, since rerunning the transaction is the expected response to 1205.
+ */
+public class RetryPolicy {
+
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final int retries;
+    private final int deadlockRetries;
+    private final long baseNanos;
+
+    public RetryPolicy(int retries, int deadlockRetries, long baseNanos) {
+        this.retries = Math.max(0, retries);
+        this.deadlockRetries = Math.max(this.retries, deadlockRetries);
+        this.baseNanos = Math.max(0, baseNanos);
+    }
+
+    public static RetryPolicy from(StressRequest req) {
+        return new RetryPolicy(req.getRetries(), req.getDeadlockRetries(), TimeUnit.MILLISECONDS.toNanos(req.getRetryBackoffMs()));
+    }
+
+    public boolean shouldRetry(int attempt, Throwable failure) {
+        if (SqlErrors.errorCode(failure) == SqlErrors.DEADLOCK) return attempt < deadlockRetries;
+        return attempt < retries && SqlErrors.isRetryable(failure);
+    }
+
+    /** Uniform in [0, min(cap, base * 2^attempt)), so retrying workers do not fire in lockstep. */
+    public long backoffNanos(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_NANOS, baseNanos << Math.min(attempt, 20));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling);
+    }
+}
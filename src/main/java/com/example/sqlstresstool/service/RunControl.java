@@ -0,0 +1,122 @@
+package com.example.sqlstresstool.service;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Per-run handle shared between the caller and the workers: run id, cancellation and optional live stats.
+ * Cancelling also cancels the statements still executing, so a run stops without waiting out long queries.
+ */
+public class RunControl {
+
+    private final String runId;
+    private volatile boolean cancelled;
+    // Dropped once the run's last interval is published; the ring is several MB and finished jobs are kept
+    private volatile LiveStats liveStats;
+    private final Set<Statement> executing = ConcurrentHashMap.newKeySet();
+    // Physical connections this run has applied its driver settings to; the pool hands them out again
+    private final Set<Object> configured = ConcurrentHashMap.newKeySet();
+    private final List<RunControl> children = new CopyOnWriteArrayList<>();
+    private volatile Path traceDir;
+
+    public RunControl() {
+        this(UUID.randomUUID().toString().substring(0, 8), null);
+    }
+
+    public RunControl(String runId, LiveStats liveStats) {
+        this.runId = runId;
+        this.liveStats = liveStats;
+    }
+
+    public String getRunId() { return runId; }
+
+    public boolean isCancelled() { return cancelled; }
+
+    public void cancel() {
+        cancelled = true;
+        for (Statement st : executing) {
+            cancelQuietly(st);
+        }
+        children.forEach(RunControl::cancel);
+    }
+
+    public LiveStats getLiveStats() { return liveStats; }
+
+    /** Lets go of the live stats after the final snapshot, here and in the children that share them. */
+    void releaseLiveStats() {
+        liveStats = null;
+        children.forEach(RunControl::releaseLiveStats);
+    }
+
+    public Path getTraceDir() { return traceDir; }
+    public void setTraceDir(Path traceDir) { this.traceDir = traceDir; }
+
+    /** Where this run's trace goes when the request asks for one; children write their own files. */
+    Path traceFile() {
+        if (traceDir == null) throw new IllegalStateException("Tracing is not available for this run");
+        return traceDir.resolve(runId + TraceWriter.EXTENSION);
+    }
+
+    boolean isConfigured(Object physicalConnection) { return configured.contains(physicalConnection); }
+    void markConfigured(Object physicalConnection) { configured.add(physicalConnection); }
+
+    /** Lets go of the connections configured by a run that has finished; the pool may close them any time. */
+    void forgetConfigured() { configured.clear(); }
+
+    /** Control for one part of this run (e.g. one target) with its own run id; cancelled together with this one. */
+    public RunControl child(String name) {
+        RunControl child = new RunControl(runId + "-" + name, liveStats);
+        child.traceDir = traceDir;
+        children.add(child);
+        if (cancelled) child.cancel();
+        return child;
+    }
+
+    /**
+     * Aborts the connections of the statements in flight, as a network reset would, and returns how many.
+     * The pool is not told; it finds them broken when they are returned.
+     */
+    int abortExecutingConnections() {
+        Set<Connection> aborted = new HashSet<>();
+        for (Statement st : executing) {
+            try {
+                Connection conn = st.getConnection();
+                if (aborted.add(conn)) conn.abort(Runnable::run);
+            } catch (SQLException ignored) {
+                // Finished and closed meanwhile
+            }
+            // Drivers that do not interrupt a running statement on abort
+            cancelQuietly(st);
+        }
+        return aborted.size();
+    }
+
+    /** Tracks a statement until the returned handle is closed; open it as a second try-with-resources resource. */
+    Executing executing(Statement st) {
+        executing.add(st);
+        // cancel() may have run between the worker's last check and the add above
+        if (cancelled) cancelQuietly(st);
+        return () -> executing.remove(st);
+    }
+
+    interface Executing extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static void cancelQuietly(Statement st) {
+        try {
+            st.cancel();
+        } catch (SQLException | RuntimeException e) {
+            // The statement completed or was closed meanwhile
+        }
+    }
+}
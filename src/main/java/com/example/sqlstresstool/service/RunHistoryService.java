@@ -0,0 +1,152 @@
+package com.example.sqlstresstool.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps finished runs in an append-only JSON Lines file. Each line is either a run
+ * ({"type":"run", ...}) or a baseline marker ({"type":"baseline","id":...}); the history is
+ * rebuilt by replaying the file on startup, and a truncated last line is skipped.
+ */
+@Service
+public class RunHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(RunHistoryService.class);
+    public static final double DEFAULT_TOLERANCE_PERCENT = 5.0;
+
+    private final Path file;
+    private final ObjectMapper mapper;
+    private final Map<String, RunRecord> runs = new LinkedHashMap<>();
+    private String baselineId;
+
+    public RunHistoryService(@Value("${stress.history.file:data/run-history.jsonl}") String file, ObjectMapper mapper) {
+        this.file = Path.of(file);
+        this.mapper = mapper;
+        load();
+    }
+
+    public synchronized void record(RunJob job) {
+        StressResult result = job.getResult();
+        if (result == null) return;
+        RunRecord run = new RunRecord();
+        run.setId(job.getId());
+        run.setRecordedAt(Instant.now().toString());
+        run.setStartTime(result.getStartTime());
+        run.setFinishTime(result.getFinishTime());
+        run.setStatus(job.getStatus());
+        run.setRequest(job.getRequest());
+        run.setDurationMs(result.getDurationMs());
+        run.setSuccessCount(result.getSuccessCount());
+        run.setErrorCount(result.getErrorCount());
+        run.setThroughput(result.getAchievedRate());
+        run.setAvgMs(result.getAvgMs());
+        run.setP50Ms(result.getP50Ms());
+        run.setP95Ms(result.getP95Ms());
+        run.setP99Ms(result.getP99Ms());
+        run.setMaxMs(result.getMaxMs());
+        run.setHistogram(result.getHistogram() == null ? new long[0] : result.getHistogram().toSparseCounts());
+        run.setIntervalThroughput(job.getSnapshots().stream().mapToDouble(LiveSnapshot::getOpsPerSec).toArray());
+
+        ObjectNode line = mapper.valueToTree(run);
+        line.remove("baseline");
+        line.put("type", "run");
+        if (append(line)) runs.put(run.getId(), run);
+    }
+
+    public synchronized List<RunRecord> list() {
+        List<RunRecord> list = new ArrayList<>(runs.values());
+        list.sort(Comparator.comparing(RunRecord::getRecordedAt, Comparator.nullsFirst(Comparator.naturalOrder())).reversed());
+        return list;
+    }
+
+    public synchronized RunRecord get(String id) {
+        return id == null ? null : runs.get(id);
+    }
+
+    public synchronized RunRecord getBaseline() {
+        return get(baselineId);
+    }
+
+    public synchronized boolean markBaseline(String id) {
+        if (!runs.containsKey(id)) return false;
+        ObjectNode line = mapper.createObjectNode();
+        line.put("type", "baseline");
+        line.put("id", id);
+        line.put("at", Instant.now().toString());
+        if (!append(line)) return false;
+        setBaseline(id);
+        return true;
+    }
+
+    /** Compares a run against the given baseline, or the current one when baselineId is null; null if either is unknown. */
+    public synchronized RegressionVerdict compare(String candidateId, String baselineId, Double tolerancePercent) {
+        RunRecord candidate = get(candidateId);
+        RunRecord baseline = baselineId == null ? getBaseline() : get(baselineId);
+        if (candidate == null || baseline == null) return null;
+        return RegressionAnalyzer.compare(baseline, candidate,
+                tolerancePercent == null ? DEFAULT_TOLERANCE_PERCENT : tolerancePercent);
+    }
+
+    private void setBaseline(String id) {
+        RunRecord previous = runs.get(baselineId);
+        if (previous != null) previous.setBaseline(false);
+        baselineId = id;
+        runs.get(id).setBaseline(true);
+    }
+
+    private boolean append(JsonNode line) {
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                out.write(mapper.writeValueAsString(line));
+                out.newLine();
+            }
+            return true;
+        } catch (IOException e) {
+            log.warn("Could not write run history to {}: {}", file, e.getMessage());
+            return false;
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(file)) return;
+        try {
+            for (String text : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (text.isBlank()) continue;
+                try {
+                    JsonNode line = mapper.readTree(text);
+                    String type = line.path("type").asText();
+                    if (type.equals("run")) {
+                        ((ObjectNode) line).remove("type");
+                        RunRecord run = mapper.treeToValue(line, RunRecord.class);
+                        runs.put(run.getId(), run);
+                    } else if (type.equals("baseline") && runs.containsKey(line.path("id").asText())) {
+                        setBaseline(line.path("id").asText());
+                    }
+                } catch (IOException | IllegalArgumentException e) {
+                    log.warn("Skipping unreadable run history line: {}", e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not read run history from {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.sqlstresstool.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public class RunJob {
+
+    private static final int MAX_SNAPSHOTS = 3600;
+
+    private final String id;
+    private final StressRequest request;
+    private final RunControl control;
+    private final Instant submittedAt = Instant.now();
+    private final List<LiveSnapshot> snapshots = new ArrayList<>();
+    private final List<RunJobListener> listeners = new ArrayList<>();
+    private long published;
+    // Set once the final snapshots are out; the status turns finished before that
+    private boolean finishedPublished;
+    private volatile RunJobStatus status = RunJobStatus.RUNNING;
+    private volatile StressResult result;
+    private volatile String failureMessage;
+    private volatile Instant finishedAt;
+    long nextInterval;
+
+    public RunJob(String id, StressRequest request, RunControl control) {
+        this.id = id;
+        this.request = request;
+        this.control = control;
+    }
+
+    public String getId() { return id; }
+    public StressRequest getRequest() { return request; }
+    public RunControl getControl() { return control; }
+    public Instant getSubmittedAt() { return submittedAt; }
+    public RunJobStatus getStatus() { return status; }
+    public StressResult getResult() { return result; }
+    public String getFailureMessage() { return failureMessage; }
+    public Instant getFinishedAt() { return finishedAt; }
+
+    public boolean isFinished() {
+        return status == RunJobStatus.COMPLETED || status == RunJobStatus.CANCELLED || status == RunJobStatus.FAILED;
+    }
+
+    public void cancel() {
+        if (!isFinished()) {
+            status = RunJobStatus.CANCELLING;
+            control.cancel();
+        }
+    }
+
+    void complete(StressResult result) {
+        this.result = result;
+        this.finishedAt = Instant.now();
+        this.status = result.isCancelled() ? RunJobStatus.CANCELLED : RunJobStatus.COMPLETED;
+    }
+
+    void fail(String message) {
+        this.failureMessage = message;
+        this.finishedAt = Instant.now();
+        this.status = RunJobStatus.FAILED;
+    }
+
+    public synchronized List<LiveSnapshot> getSnapshots() {
+        return new ArrayList<>(snapshots);
+    }
+
+    /** The snapshots published after the first {@code since}, as far as they are still kept. */
+    public synchronized List<LiveSnapshot> getSnapshotsSince(long since) {
+        long dropped = published - snapshots.size();
+        int from = (int) Math.min(snapshots.size(), Math.max(0, since - dropped));
+        return new ArrayList<>(snapshots.subList(from, snapshots.size()));
+    }
+
+    public synchronized long getPublishedCount() { return published; }
+
+    // Listeners are notified outside the lock, so a slow one holds up neither readers of the job nor
+    // subscribers; the single ticker thread still delivers every listener's snapshots in order
+    void publish(LiveSnapshot snapshot) {
+        List<RunJobListener> notify;
+        synchronized (this) {
+            if (snapshots.size() >= MAX_SNAPSHOTS) snapshots.remove(0);
+            snapshots.add(snapshot);
+            published++;
+            notify = new ArrayList<>(listeners);
+        }
+        for (RunJobListener l : notify) {
+            l.onSnapshot(snapshot);
+        }
+    }
+
+    void publishFinished() {
+        List<RunJobListener> notify;
+        synchronized (this) {
+            notify = new ArrayList<>(listeners);
+            listeners.clear();
+            finishedPublished = true;
+        }
+        for (RunJobListener l : notify) {
+            l.onFinished(this);
+        }
+    }
+
+    /** Replays the snapshots seen so far to the listener, then keeps it subscribed until the job finishes. */
+    public synchronized void subscribe(RunJobListener listener) {
+        for (LiveSnapshot s : snapshots) {
+            listener.onSnapshot(s);
+        }
+        if (finishedPublished) {
+            listener.onFinished(this);
+        } else {
+            listeners.add(listener);
+        }
+    }
+
+    public synchronized void unsubscribe(RunJobListener listener) {
+        listeners.remove(listener);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.sqlstresstool.service;
+
+/** Called on the job's publishing thread, shared by all running jobs; implementations must not block. */
+public interface RunJobListener {
+    void onSnapshot(LiveSnapshot snapshot);
+
+    void onFinished(RunJob job);
+}
@@ -0,0 +1,176 @@
+package com.example.sqlstresstool.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Service;
+
+@Service
+public class RunJobService {
+
+    private static final long TICK_MS = 1000;
+    // How far a coordinator's live view trails the clock, so the agents' intervals are in before it closes them
+    private static final int DISTRIBUTED_LAG_INTERVALS = 3;
+    private static final int MAX_FINISHED_JOBS = 20;
+
+    private final SqlRunnerService sqlRunnerService;
+    private final DistributedRunService distributedRunService;
+    private final TargetRunService targetRunService;
+    private final DataSource dataSource;
+    private final RunHistoryService history;
+    private final TraceService traceService;
+    private final Map<String, RunJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService jobExecutor = Executors.newCachedThreadPool(namedDaemon("stress-job-"));
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(namedDaemon("stress-live-"));
+
+    public RunJobService(SqlRunnerService sqlRunnerService, DistributedRunService distributedRunService,
+                         TargetRunService targetRunService, DataSource dataSource, RunHistoryService history,
+                         TraceService traceService) {
+        this.sqlRunnerService = sqlRunnerService;
+        this.distributedRunService = distributedRunService;
+        this.targetRunService = targetRunService;
+        this.dataSource = dataSource;
+        this.history = history;
+        this.traceService = traceService;
+    }
+
+    public RunJob submit(StressRequest request) {
+        return submit(request, 0, false);
+    }
+
+    /**
+     * Starts an agent's part of a distributed run no earlier than the given wall-clock time, so the agents start
+     * together. Its live snapshots carry their interval's latencies for the coordinator to merge.
+     */
+    public RunJob submitAgentPart(StressRequest request, long startAtEpochMs) {
+        return submit(request, startAtEpochMs, true);
+    }
+
+    private RunJob submit(StressRequest request, long startAtEpochMs, boolean agentPart) {
+        LiveStats live = new LiveStats(TimeUnit.MILLISECONDS.toNanos(TICK_MS), Math.max(1, request.getConcurrency()),
+                agentPart);
+        String id = UUID.randomUUID().toString().substring(0, 8);
+        RunControl control = new RunControl(id, live);
+        control.setTraceDir(traceService.getDirectory());
+        RunJob job = new RunJob(id, request, control);
+        pruneFinishedJobs();
+        jobs.put(job.getId(), job);
+
+        jobExecutor.execute(() -> {
+            ScheduledFuture<?> tick = null;
+            try {
+                waitUntil(startAtEpochMs, job.getControl());
+                job.nextInterval = live.currentInterval();
+                tick = ticker.scheduleAtFixedRate(() -> publishClosedIntervals(job, false),
+                        TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+                job.complete(request.isDistributed()
+                        ? distributedRunService.run(request, job.getControl())
+                        : !TargetRunService.targetNames(request).isEmpty()
+                        ? targetRunService.run(request, job.getControl())
+                        : sqlRunnerService.run(request, job.getControl()));
+            } catch (Exception ex) {
+                job.fail(ex.getClass().getSimpleName() + ": " + ex.getMessage());
+            } finally {
+                if (tick != null) tick.cancel(false);
+                ticker.execute(() -> {
+                    publishClosedIntervals(job, true);
+                    job.getControl().releaseLiveStats();
+                    history.record(job);
+                    job.publishFinished();
+                });
+            }
+        });
+        return job;
+    }
+
+    public RunJob get(String id) {
+        return id == null ? null : jobs.get(id);
+    }
+
+    public List<RunJob> list() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(RunJob::getSubmittedAt).reversed())
+                .toList();
+    }
+
+    public boolean cancel(String id) {
+        RunJob job = get(id);
+        if (job == null || job.isFinished()) return false;
+        job.cancel();
+        return true;
+    }
+
+    private void publishClosedIntervals(RunJob job, boolean includeCurrent) {
+        LiveStats live = job.getControl().getLiveStats();
+        if (live == null) return;
+        boolean distributed = job.getRequest().isDistributed();
+        long current = live.currentInterval();
+        long last = includeCurrent ? current : current - 1 - (distributed ? DISTRIBUTED_LAG_INTERVALS : 0);
+        while (job.nextInterval <= last) {
+            LiveSnapshot snap = live.closeInterval(job.nextInterval++);
+            if (snap == null) continue;
+            // The coordinator's own pool is not used by a distributed run
+            if (!distributed) addPoolGauges(snap);
+            job.publish(snap);
+        }
+    }
+
+    private void addPoolGauges(LiveSnapshot snap) {
+        if (dataSource instanceof HikariDataSource) {
+            try {
+                HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+                if (pool == null) return;
+                snap.setPoolActive(pool.getActiveConnections());
+                snap.setPoolIdle(pool.getIdleConnections());
+                snap.setPoolTotal(pool.getTotalConnections());
+                snap.setPoolWaiting(pool.getThreadsAwaitingConnection());
+            } catch (Exception e) {
+                // Pool not initialized yet
+            }
+        }
+    }
+
+    private static void waitUntil(long epochMs, RunControl control) throws InterruptedException {
+        long remaining;
+        while ((remaining = epochMs - System.currentTimeMillis()) > 0 && !control.isCancelled()) {
+            Thread.sleep(Math.min(remaining, 100));
+        }
+    }
+
+    private void pruneFinishedJobs() {
+        Collection<RunJob> finished = jobs.values().stream()
+                .filter(RunJob::isFinished)
+                .sorted(Comparator.comparing(RunJob::getSubmittedAt))
+                .toList();
+        int excess = finished.size() - MAX_FINISHED_JOBS + 1;
+        for (RunJob job : finished) {
+            if (excess-- <= 0) break;
+            jobs.remove(job.getId());
+        }
+    }
+
+    private static ThreadFactory namedDaemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(RunJob::cancel);
+        jobExecutor.shutdownNow();
+        ticker.shutdownNow();
+    }
+}
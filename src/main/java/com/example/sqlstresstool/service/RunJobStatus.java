@@ -0,0 +1,9 @@
+package com.example.sqlstresstool.service;
+
+public enum RunJobStatus {
+    RUNNING,
+    CANCELLING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
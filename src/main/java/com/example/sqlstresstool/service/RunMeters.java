@@ -0,0 +1,125 @@
+package com.example.sqlstresstool.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Micrometer meters of one run, tagged with its run id. Timers are resolved per statement before the
+ * workers start, so the success path only indexes an array and records into an existing timer.
+ * Error counters are tagged by SQL error code and created on the error path the first time a code is seen.
+ */
+public class RunMeters {
+
+    static final String OPERATIONS = "sqlstress.operations";
+    static final String ERRORS = "sqlstress.errors";
+    static final String IN_FLIGHT = "sqlstress.inflight";
+    static final String ACQUIRE = "sqlstress.connection.acquire";
+
+    private static final Duration MIN_EXPECTED = Duration.ofNanos(100_000);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(60);
+
+    private final MeterRegistry registry;
+    private final String runId;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Set<Meter> registered = ConcurrentHashMap.newKeySet();
+    private final Timer acquire;
+    private volatile String[] names = new String[0];
+    private volatile Timer[] timers = new Timer[0];
+    private volatile Map<Integer, Counter>[] errorCounters = newCounterMaps(0);
+
+    public RunMeters(MeterRegistry registry, String runId) {
+        this.registry = registry;
+        this.runId = runId;
+        track(Gauge.builder(IN_FLIGHT, inFlight, AtomicInteger::get)
+                .description("Statements currently executing")
+                .tag("run", runId)
+                .strongReference(true)
+                .register(registry));
+        this.acquire = track(Timer.builder(ACQUIRE)
+                .description("Time to borrow a connection from the pool")
+                .tag("run", runId)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(registry));
+    }
+
+    public String getRunId() { return runId; }
+
+    /** Resolves the per-statement timers of a workload; called once per run (or per profile step) before dispatch. */
+    public void bind(Workload workload) {
+        String[] n = new String[workload.size()];
+        Timer[] t = new Timer[workload.size()];
+        for (int i = 0; i < t.length; i++) {
+            n[i] = workload.getName(i);
+            t[i] = track(Timer.builder(OPERATIONS)
+                    .description("Successful statement executions")
+                    .tags("run", runId, "statement", n[i])
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(MIN_EXPECTED)
+                    .maximumExpectedValue(MAX_EXPECTED)
+                    .register(registry));
+        }
+        errorCounters = newCounterMaps(t.length);
+        names = n;
+        timers = t;
+    }
+
+    public void begin() {
+        inFlight.incrementAndGet();
+    }
+
+    public void end() {
+        inFlight.decrementAndGet();
+    }
+
+    public void recordSuccess(int statement, long nanos) {
+        Timer[] t = timers;
+        if (statement < t.length) t[statement].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordAcquire(long nanos) {
+        acquire.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordError(int statement, Exception ex) {
+        Map<Integer, Counter>[] counters = errorCounters;
+        if (statement >= counters.length) return;
+        int code = SqlErrors.errorCode(ex);
+        counters[statement].computeIfAbsent(code, c -> track(Counter.builder(ERRORS)
+                .description("Failed statement executions by SQL error code (-1 when not a SQLException)")
+                .tags("run", runId, "statement", names[statement], "code", String.valueOf(c))
+                .register(registry))).increment();
+    }
+
+    /** Removes this run's meters from the registry. */
+    public void close() {
+        for (Meter m : registered) {
+            registry.remove(m);
+        }
+        registered.clear();
+    }
+
+    private <M extends Meter> M track(M meter) {
+        registered.add(meter);
+        return meter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Integer, Counter>[] newCounterMaps(int size) {
+        Map<Integer, Counter>[] maps = (Map<Integer, Counter>[]) new Map<?, ?>[size];
+        for (int i = 0; i < size; i++) {
+            maps[i] = new ConcurrentHashMap<>();
+        }
+        return maps;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.sqlstresstool.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Everything the workers of a single run record into. Histograms are per worker slot;
+ * counters are striped adders, so nothing here takes a lock on the success path.
+ */
+public class RunMetrics {
+
+    private static final int MAX_ERROR_SAMPLES = 5;
+
+    private final RunMeters meters;
+    private final LatencyRecorder latency;
+    private final LatencyRecorder service;
+    private final LatencyRecorder batch;
+    private final LatencyRecorder acquire;
+    private final LatencyRecorder execute;
+    private final LatencyRecorder fetch;
+    private final LatencyRecorder commit;
+    private final LatencyRecorder[] statementLatency;
+    private final LongAdder[] statementErrors;
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder late = new LongAdder();
+    private final LongAccumulator maxLagNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder fetchedRows = new LongAdder();
+    private final LongAdder fetchedBytes = new LongAdder();
+    private final LongAdder cappedResults = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder aborts = new LongAdder();
+    private final LongAdder deadlocks = new LongAdder();
+    private final Map<Integer, LongAdder> errorCodes = new ConcurrentHashMap<>();
+    private final Map<Integer, Throwable> firstErrors = new ConcurrentHashMap<>();
+    private volatile boolean sampleRowsFull;
+    private final List<String> errorSamples = Collections.synchronizedList(new ArrayList<>());
+    private final List<List<String>> sampleRows = Collections.synchronizedList(new ArrayList<>());
+
+    /** Statements of a mix get a per-slot recorder each, like the overall latency; slots allocate on first use. */
+    public RunMetrics(int workerSlots, boolean trackServiceTime, boolean trackBatches, boolean trackCommits,
+                      int statements, RunMeters meters, TraceWriter trace) {
+        this.meters = meters;
+        this.latency = new LatencyRecorder(workerSlots);
+        this.service = trackServiceTime ? new LatencyRecorder(workerSlots) : null;
+        this.batch = trackBatches ? new LatencyRecorder(workerSlots) : null;
+        this.acquire = phaseRecorder(workerSlots, trace, 0);
+        this.execute = phaseRecorder(workerSlots, trace, 1);
+        this.fetch = phaseRecorder(workerSlots, trace, 2);
+        this.commit = trackCommits ? new LatencyRecorder(workerSlots) : null;
+        this.statementLatency = new LatencyRecorder[statements];
+        this.statementErrors = new LongAdder[statements];
+        for (int i = 0; i < statements; i++) {
+            statementLatency[i] = new LatencyRecorder(workerSlots);
+            statementErrors[i] = new LongAdder();
+        }
+    }
+
+    private static LatencyRecorder phaseRecorder(int workerSlots, TraceWriter trace, int phase) {
+        return trace == null ? new LatencyRecorder(workerSlots) : new TracedPhaseRecorder(workerSlots, trace, phase);
+    }
+
+    // Also adds the time to the trace record of the operation the slot is running
+    private static final class TracedPhaseRecorder extends LatencyRecorder {
+        private final TraceWriter trace;
+        private final int phase;
+
+        TracedPhaseRecorder(int workerSlots, TraceWriter trace, int phase) {
+            super(workerSlots);
+            this.trace = trace;
+            this.phase = phase;
+        }
+
+        @Override
+        public void recordNanos(int workerSlot, long nanos) {
+            super.recordNanos(workerSlot, nanos);
+            trace.phase(workerSlot, phase, nanos);
+        }
+    }
+
+    public RunMeters getMeters() { return meters; }
+    public LatencyRecorder getLatency() { return latency; }
+    public LatencyRecorder getService() { return service; }
+    public LatencyRecorder getBatch() { return batch; }
+    public LatencyRecorder getAcquire() { return acquire; }
+    public LatencyRecorder getExecute() { return execute; }
+    public LatencyRecorder getFetch() { return fetch; }
+    public LatencyRecorder getCommit() { return commit; }
+    public LongAdder getErrors() { return errors; }
+    public LongAdder getLate() { return late; }
+    public LongAccumulator getMaxLagNanos() { return maxLagNanos; }
+    public LongAdder getRows() { return rows; }
+    public LongAdder getFetchedRows() { return fetchedRows; }
+    public LongAdder getFetchedBytes() { return fetchedBytes; }
+    public LongAdder getCappedResults() { return cappedResults; }
+    public LongAdder getRetries() { return retries; }
+    public LongAdder getAborts() { return aborts; }
+    public LongAdder getDeadlocks() { return deadlocks; }
+
+    /** Cheap check so readers can skip building sample rows once enough have been captured. */
+    public boolean wantsSampleRows() { return !sampleRowsFull; }
+    public List<String> getErrorSamples() { return errorSamples; }
+    public List<List<String>> getSampleRows() { return sampleRows; }
+
+    public void recordStatement(int workerSlot, int statement, long nanos) {
+        if (statement < statementLatency.length) statementLatency[statement].recordNanos(workerSlot, nanos);
+    }
+
+    public void recordStatementError(int statement) {
+        if (statement < statementErrors.length) statementErrors[statement].increment();
+    }
+
+    public LatencyHistogram statementHistogram(int statement) {
+        return statementLatency[statement].merge();
+    }
+
+    public long statementErrors(int statement) {
+        return statementErrors[statement].sum();
+    }
+
+    /** Counts a failed attempt by SQL error number; called for retried attempts too, so counts are complete. */
+    public void recordFailure(Throwable ex) {
+        int code = SqlErrors.errorCode(ex);
+        firstErrors.putIfAbsent(code, ex);
+        errorCodes.computeIfAbsent(code, c -> new LongAdder()).increment();
+    }
+
+    /** Counts a rolled-back transaction attempt, and whether it was chosen as a deadlock victim. */
+    public void recordAbort(Throwable ex) {
+        aborts.increment();
+        if (SqlErrors.errorCode(ex) == SqlErrors.DEADLOCK) deadlocks.increment();
+    }
+
+    public List<ErrorCount> errorCounts() {
+        List<ErrorCount> counts = new ArrayList<>();
+        errorCodes.forEach((code, n) -> {
+            Throwable first = firstErrors.get(code);
+            counts.add(new ErrorCount(code, SqlErrors.category(first), n.sum(), first.getMessage()));
+        });
+        return ErrorCount.merge(List.of(counts));
+    }
+
+    public void addErrorSample(Exception ex) {
+        synchronized (errorSamples) {
+            if (errorSamples.size() < MAX_ERROR_SAMPLES) {
+                errorSamples.add(ex.getClass().getSimpleName() + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    public void addSampleRow(List<String> row, int maxRows) {
+        synchronized (sampleRows) {
+            if (sampleRows.size() < maxRows) {
+                sampleRows.add(row);
+            }
+            if (sampleRows.size() >= maxRows) {
+                sampleRowsFull = true;
+            }
+        }
+    }
+}
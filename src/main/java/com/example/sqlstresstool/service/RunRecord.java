@@ -0,0 +1,87 @@
+package com.example.sqlstresstool.service;
+
+/** A finished run as kept in the history file: what was run, its headline numbers and the full histogram. */
+public class RunRecord {
+    private String id;
+    private String recordedAt;
+    private String startTime;
+    private String finishTime;
+    private RunJobStatus status;
+    private StressRequest request;
+    private long durationMs;
+    private long successCount;
+    private long errorCount;
+    private double throughput;
+    private double avgMs;
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+    private double maxMs;
+    private long[] histogram;
+    private double[] intervalThroughput;
+    private boolean baseline;
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getRecordedAt() { return recordedAt; }
+    public void setRecordedAt(String recordedAt) { this.recordedAt = recordedAt; }
+
+    public String getStartTime() { return startTime; }
+    public void setStartTime(String startTime) { this.startTime = startTime; }
+
+    public String getFinishTime() { return finishTime; }
+    public void setFinishTime(String finishTime) { this.finishTime = finishTime; }
+
+    public RunJobStatus getStatus() { return status; }
+    public void setStatus(RunJobStatus status) { this.status = status; }
+
+    public StressRequest getRequest() { return request; }
+    public void setRequest(StressRequest request) { this.request = request; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public long getSuccessCount() { return successCount; }
+    public void setSuccessCount(long successCount) { this.successCount = successCount; }
+
+    public long getErrorCount() { return errorCount; }
+    public void setErrorCount(long errorCount) { this.errorCount = errorCount; }
+
+    public double getThroughput() { return throughput; }
+    public void setThroughput(double throughput) { this.throughput = throughput; }
+
+    public double getAvgMs() { return avgMs; }
+    public void setAvgMs(double avgMs) { this.avgMs = avgMs; }
+
+    public double getP50Ms() { return p50Ms; }
+    public void setP50Ms(double p50Ms) { this.p50Ms = p50Ms; }
+
+    public double getP95Ms() { return p95Ms; }
+    public void setP95Ms(double p95Ms) { this.p95Ms = p95Ms; }
+
+    public double getP99Ms() { return p99Ms; }
+    public void setP99Ms(double p99Ms) { this.p99Ms = p99Ms; }
+
+    public double getMaxMs() { return maxMs; }
+    public void setMaxMs(double maxMs) { this.maxMs = maxMs; }
+
+    /** Sparse (bucket index, count) pairs, see {@link LatencyHistogram#toSparseCounts()}. */
+    public long[] getHistogram() { return histogram; }
+    public void setHistogram(long[] histogram) { this.histogram = histogram; }
+
+    /** Completed operations per second for each one-second interval of the run. */
+    public double[] getIntervalThroughput() { return intervalThroughput; }
+    public void setIntervalThroughput(double[] intervalThroughput) { this.intervalThroughput = intervalThroughput; }
+
+    public boolean isBaseline() { return baseline; }
+    public void setBaseline(boolean baseline) { this.baseline = baseline; }
+
+    public String describeSql() {
+        if (request == null) return "";
+        String text = request.getWorkload() != null && !request.getWorkload().isBlank()
+                ? "workload mix" : String.valueOf(request.getSqlText());
+        text = text.replaceAll("\\s+", " ").trim();
+        return text.length() > 80 ? text.substring(0, 77) + "..." : text;
+    }
+}
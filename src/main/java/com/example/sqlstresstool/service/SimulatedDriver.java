@@ -0,0 +1,57 @@
+package com.example.sqlstresstool.service;
+
+import java.sql.*;
+import java.util.Properties;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * JDBC driver for {@code jdbc:simulated:} URLs, answered by an in-process {@link SimulatedServer}
+ * instead of SQL Server. Runs behind HikariCP like the real driver; see the {@code simulated} Spring profile.
+ */
+public class SimulatedDriver implements Driver {
+
+    static final String URL_PREFIX = "jdbc:simulated:";
+    static final Set<String> SETTINGS = Set.of("latency", "latencyMs", "stdDevMs", "p99Ms", "connectMs", "commitMs",
+            "maxConcurrent", "errorRate", "errors", "rows", "columns", "valueLength");
+
+    static {
+        try {
+            DriverManager.registerDriver(new SimulatedDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) return null;
+        SimulatedServer server = SimulatedServer.forUrl(url);
+        server.connect();
+        return SimulatedJdbc.connection(server);
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() { return 1; }
+
+    @Override
+    public int getMinorVersion() { return 0; }
+
+    @Override
+    public boolean jdbcCompliant() { return false; }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.sqlstresstool.service;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Arrays;
+
+/**
+ * Connection, statement and result-set objects of the simulated driver. They are dynamic proxies: only
+ * the calls the runner, HikariCP and the connection check make have behavior, everything else
+ * returns a zero value, so the driver stays small and keeps up with hundreds of thousands of calls per second.
+ */
+final class SimulatedJdbc {
+
+    private static final ClassLoader LOADER = SimulatedJdbc.class.getClassLoader();
+
+    private SimulatedJdbc() {
+    }
+
+    static Connection connection(SimulatedServer server) {
+        return proxy(Connection.class, new ConnectionHandler(server));
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final SimulatedServer server;
+        // Set by the pool's housekeeper or an abort from another thread while a worker uses the connection
+        private volatile boolean closed;
+        private boolean autoCommit = true;
+        private boolean readOnly;
+        private int isolation = Connection.TRANSACTION_READ_COMMITTED;
+        private int networkTimeout;
+        private String catalog = "simulated";
+        private String schema = "dbo";
+
+        ConnectionHandler(SimulatedServer server) {
+            this.server = server;
+        }
+
+        @Override
+        public Object invoke(Object self, Method m, Object[] a) throws Throwable {
+            switch (m.getName()) {
+                case "close" -> { closed = true; return null; }
+                case "isClosed" -> { return closed; }
+                case "isValid" -> { return !closed; }
+                case "abort" -> { closed = true; return null; }
+                default -> { }
+            }
+            Object common = objectMethod(self, m, a);
+            if (common != null) return common;
+            if (closed) throw new SQLException("The connection is closed.", "08003");
+            return switch (m.getName()) {
+                case "createStatement" -> proxy(Statement.class, new StatementHandler(server, (Connection) self, null));
+                case "prepareStatement" -> proxy(PreparedStatement.class, new StatementHandler(server, (Connection) self, (String) a[0]));
+                case "prepareCall" -> proxy(CallableStatement.class, new StatementHandler(server, (Connection) self, (String) a[0]));
+                case "getAutoCommit" -> autoCommit;
+                case "setAutoCommit" -> { autoCommit = (Boolean) a[0]; yield null; }
+                case "commit" -> {
+                    if (!autoCommit) server.commit();
+                    yield null;
+                }
+                case "isReadOnly" -> readOnly;
+                case "setReadOnly" -> { readOnly = (Boolean) a[0]; yield null; }
+                case "getTransactionIsolation" -> isolation;
+                case "setTransactionIsolation" -> { isolation = (Integer) a[0]; yield null; }
+                case "getNetworkTimeout" -> networkTimeout;
+                case "setNetworkTimeout" -> { networkTimeout = (Integer) a[1]; yield null; }
+                case "getCatalog" -> catalog;
+                case "setCatalog" -> { catalog = (String) a[0]; yield null; }
+                case "getSchema" -> schema;
+                case "setSchema" -> { schema = (String) a[0]; yield null; }
+                case "nativeSQL" -> a[0];
+                case "getMetaData" -> proxy(DatabaseMetaData.class, (p, dm, da) -> switch (dm.getName()) {
+                    case "getDatabaseProductName" -> "Simulated SQL Server";
+                    case "getDatabaseProductVersion", "getDriverVersion" -> "1.0";
+                    case "getDriverName" -> "Simulated JDBC driver";
+                    case "getURL" -> SimulatedDriver.URL_PREFIX;
+                    case "getConnection" -> self;
+                    default -> zero(dm);
+                });
+                default -> zero(m);
+            };
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final SimulatedServer server;
+        private final Connection connection;
+        private final String preparedSql;
+        private volatile boolean closed;
+        private int queryTimeout;
+        private int fetchSize;
+        private int batched;
+        private ResultSet results;
+        private int updateCount = -1;
+        private Thread executingThread;
+        private boolean cancelInterrupt;
+
+        StatementHandler(SimulatedServer server, Connection connection, String preparedSql) {
+            this.server = server;
+            this.connection = connection;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object self, Method m, Object[] a) throws Throwable {
+            switch (m.getName()) {
+                case "close" -> { closed = true; return null; }
+                case "isClosed" -> { return closed; }
+                case "cancel" -> { cancel(); return null; }
+                default -> { }
+            }
+            Object common = objectMethod(self, m, a);
+            if (common != null) return common;
+            if (closed) throw new SQLException("The statement is closed.", "HY010");
+            String sql = a != null && a.length > 0 && a[0] instanceof String s ? s : preparedSql;
+            return switch (m.getName()) {
+                case "executeQuery" -> {
+                    execute();
+                    yield resultSet((Statement) self);
+                }
+                case "execute" -> {
+                    execute();
+                    if (isQuery(sql)) {
+                        results = resultSet((Statement) self);
+                        updateCount = -1;
+                        yield true;
+                    }
+                    updateCount = 1;
+                    yield false;
+                }
+                case "executeUpdate" -> {
+                    execute();
+                    yield 1;
+                }
+                case "executeLargeUpdate" -> {
+                    execute();
+                    yield 1L;
+                }
+                case "addBatch" -> { batched++; yield null; }
+                case "clearBatch" -> { batched = 0; yield null; }
+                case "executeBatch" -> {
+                    execute();
+                    int[] counts = new int[batched];
+                    Arrays.fill(counts, 1);
+                    batched = 0;
+                    yield counts;
+                }
+                case "getResultSet" -> { ResultSet r = results; results = null; yield r; }
+                case "getUpdateCount" -> { int c = updateCount; updateCount = -1; yield c; }
+                case "getMoreResults" -> { results = null; updateCount = -1; yield false; }
+                case "getQueryTimeout" -> queryTimeout;
+                case "setQueryTimeout" -> { queryTimeout = (Integer) a[0]; yield null; }
+                case "getFetchSize" -> fetchSize;
+                case "setFetchSize" -> { fetchSize = (Integer) a[0]; yield null; }
+                case "getConnection" -> connection;
+                default -> zero(m);
+            };
+        }
+
+        // cancel() comes from another thread: it interrupts the execution, which the server reports as
+        // "The query was canceled."; that interrupt, and only that one, is cleared before the worker thread goes on.
+        private void execute() throws SQLException {
+            synchronized (this) {
+                executingThread = Thread.currentThread();
+            }
+            try {
+                server.execute(queryTimeout);
+            } catch (SQLException e) {
+                // A connection aborted mid-statement fails like a dropped session, not like a cancel
+                if (connection.isClosed()) throw SimulatedServer.connectionReset();
+                throw e;
+            } finally {
+                synchronized (this) {
+                    executingThread = null;
+                    if (cancelInterrupt) {
+                        cancelInterrupt = false;
+                        Thread.interrupted();
+                    }
+                }
+            }
+        }
+
+        private synchronized void cancel() {
+            if (executingThread != null) {
+                cancelInterrupt = true;
+                executingThread.interrupt();
+            }
+        }
+
+        private ResultSet resultSet(Statement statement) {
+            return proxy(ResultSet.class, new ResultSetHandler(server, statement));
+        }
+
+        private static boolean isQuery(String sql) {
+            if (sql == null) return false;
+            int i = 0;
+            while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) i++;
+            return sql.regionMatches(true, i, "select", 0, 6) || sql.regionMatches(true, i, "with", 0, 4);
+        }
+    }
+
+    /** Column 1 is an INT holding the row number, the others NVARCHAR values of the configured length. */
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final SimulatedServer server;
+        private final Statement statement;
+        private int row;
+        private boolean closed;
+
+        ResultSetHandler(SimulatedServer server, Statement statement) {
+            this.server = server;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object self, Method m, Object[] a) throws Throwable {
+            switch (m.getName()) {
+                case "close" -> { closed = true; return null; }
+                case "isClosed" -> { return closed; }
+                default -> { }
+            }
+            Object common = objectMethod(self, m, a);
+            if (common != null) return common;
+            if (closed) throw new SQLException("The result set is closed.", "HY010");
+            return switch (m.getName()) {
+                case "next" -> row++ < server.getRows();
+                case "getInt" -> isIdColumn(a[0]) ? row : 0;
+                case "getLong" -> isIdColumn(a[0]) ? (long) row : 0L;
+                case "getShort" -> isIdColumn(a[0]) ? (short) row : (short) 0;
+                case "getString", "getNString" -> isIdColumn(a[0]) ? Integer.toString(row) : server.getValue();
+                case "getObject" -> isIdColumn(a[0]) ? (Object) row : server.getValue();
+                case "wasNull" -> false;
+                case "getRow" -> row;
+                case "findColumn" -> columnIndex((String) a[0]);
+                case "getStatement" -> statement;
+                case "getMetaData" -> proxy(ResultSetMetaData.class, (p, mm, ma) -> switch (mm.getName()) {
+                    case "getColumnCount" -> server.getColumns();
+                    case "getColumnType" -> (Integer) ma[0] == 1 ? Types.INTEGER : Types.NVARCHAR;
+                    case "getColumnTypeName" -> (Integer) ma[0] == 1 ? "int" : "nvarchar";
+                    case "getColumnName", "getColumnLabel" -> columnName((Integer) ma[0]);
+                    case "getColumnDisplaySize", "getPrecision" -> (Integer) ma[0] == 1 ? 10 : server.getValue().length();
+                    case "isNullable" -> ResultSetMetaData.columnNoNulls;
+                    default -> zero(mm);
+                });
+                default -> zero(m);
+            };
+        }
+
+        private boolean isIdColumn(Object column) {
+            return column instanceof Integer i ? i == 1 : "id".equalsIgnoreCase((String) column);
+        }
+
+        private int columnIndex(String name) throws SQLException {
+            for (int c = 1; c <= server.getColumns(); c++) {
+                if (columnName(c).equalsIgnoreCase(name)) return c;
+            }
+            throw new SQLException("The column name " + name + " is not valid.", "S0022");
+        }
+
+        private static String columnName(int column) {
+            return column == 1 ? "id" : "c" + column;
+        }
+    }
+
+    // equals/hashCode/toString and the Wrapper methods, shared by every proxy; null when m is none of them
+    private static Object objectMethod(Object self, Method m, Object[] a) throws SQLException {
+        return switch (m.getName()) {
+            case "equals" -> self == a[0];
+            case "hashCode" -> System.identityHashCode(self);
+            case "toString" -> "Simulated" + self.getClass().getInterfaces()[0].getSimpleName() + "@"
+                    + Integer.toHexString(System.identityHashCode(self));
+            case "isWrapperFor" -> ((Class<?>) a[0]).isInstance(self);
+            case "unwrap" -> {
+                if (((Class<?>) a[0]).isInstance(self)) yield self;
+                throw new SQLException("Simulated driver does not wrap " + ((Class<?>) a[0]).getName());
+            }
+            default -> null;
+        };
+    }
+
+    private static Object zero(Method m) {
+        Class<?> type = m.getReturnType();
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0d;
+        if (type == float.class) return 0f;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        return '\0';
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(LOADER, new Class<?>[]{type}, handler);
+    }
+}
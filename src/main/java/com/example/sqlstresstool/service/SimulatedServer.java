@@ -0,0 +1,191 @@
+package com.example.sqlstresstool.service;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The in-process "server" behind {@code jdbc:simulated:} connections. Settings come from the URL as
+ * {@code key=value} pairs separated by {@code ;}, e.g.
+ * {@code jdbc:simulated:latency=longtail;latencyMs=2;p99Ms=40;maxConcurrent=32;errorRate=0.01}.
+ * All connections with the same URL share one server, so its concurrency limit queues them like a real one.
+ */
+final class SimulatedServer {
+
+    enum Latency { FIXED, NORMAL, LONGTAIL }
+
+    // z-score of the 99th percentile, used to fit the long-tail (log-normal) distribution
+    private static final double Z_99 = 2.3263;
+    private static final Map<String, SimulatedServer> SERVERS = new ConcurrentHashMap<>();
+
+    private final Latency latency;
+    private final double latencyMs;
+    private final double stdDevMs;
+    private final double sigma;
+    private final long connectNanos;
+    private final long commitNanos;
+    private final Semaphore slots;
+    private final double errorRate;
+    private final int[] errors;
+    private final int rows;
+    private final int columns;
+    private final String value;
+    private volatile long outageUntilNanos;
+
+    private SimulatedServer(Map<String, String> settings) {
+        this.latency = Latency.valueOf(settings.getOrDefault("latency", "fixed").toUpperCase(Locale.ROOT));
+        this.latencyMs = number(settings, "latencyMs", 1);
+        this.stdDevMs = number(settings, "stdDevMs", latencyMs / 4);
+        double p99Ms = number(settings, "p99Ms", latencyMs * 10);
+        this.sigma = latencyMs > 0 && p99Ms > latencyMs ? Math.log(p99Ms / latencyMs) / Z_99 : 0;
+        this.connectNanos = (long) (number(settings, "connectMs", 0) * 1_000_000);
+        this.commitNanos = (long) (number(settings, "commitMs", 0) * 1_000_000);
+        int maxConcurrent = (int) number(settings, "maxConcurrent", 0);
+        this.slots = maxConcurrent > 0 ? new Semaphore(maxConcurrent, true) : null;
+        this.errorRate = number(settings, "errorRate", 0);
+        this.errors = Arrays.stream(settings.getOrDefault("errors", "40613,40501,1205").split(","))
+                .map(String::trim).filter(s -> !s.isEmpty()).mapToInt(Integer::parseInt).toArray();
+        this.rows = (int) number(settings, "rows", 10);
+        this.columns = Math.max(1, (int) number(settings, "columns", 3));
+        this.value = "x".repeat(Math.max(0, (int) number(settings, "valueLength", 16)));
+    }
+
+    static SimulatedServer forUrl(String url) throws SQLException {
+        String spec = url.substring(SimulatedDriver.URL_PREFIX.length());
+        try {
+            return SERVERS.computeIfAbsent(spec, s -> new SimulatedServer(parse(s)));
+        } catch (IllegalArgumentException e) {
+            throw new SQLException("Invalid simulated driver URL '" + url + "': " + e.getMessage(), "08001", e);
+        }
+    }
+
+    private static Map<String, String> parse(String spec) {
+        Map<String, String> settings = new LinkedHashMap<>();
+        for (String part : spec.split(";")) {
+            if (part.isBlank()) continue;
+            int eq = part.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("expected key=value, got '" + part + "'");
+            String key = part.substring(0, eq).trim();
+            if (!SimulatedDriver.SETTINGS.contains(key)) {
+                throw new IllegalArgumentException("unknown setting '" + key + "', expected one of " + SimulatedDriver.SETTINGS);
+            }
+            settings.put(key, part.substring(eq + 1).trim());
+        }
+        return settings;
+    }
+
+    private static double number(Map<String, String> settings, String key, double fallback) {
+        String v = settings.get(key);
+        return v == null ? fallback : Double.parseDouble(v);
+    }
+
+    int getRows() { return rows; }
+
+    int getColumns() { return columns; }
+
+    String getValue() { return value; }
+
+    void connect() throws SQLException {
+        if (isDown()) throw transientError(40613);
+        if (connectNanos > 0) sleepUntil(System.nanoTime() + connectNanos, 0);
+    }
+
+    /**
+     * Takes the server down for the given time, like a failover: statements on existing sessions fail with
+     * a connection reset, and logins fail with 40613 until it is back.
+     */
+    void outage(long nanos) {
+        outageUntilNanos = System.nanoTime() + nanos;
+    }
+
+    private boolean isDown() {
+        long until = outageUntilNanos;
+        return until != 0 && System.nanoTime() - until < 0;
+    }
+
+    /** Commit of an explicit transaction: the log flush, which the server does not queue for a slot. */
+    void commit() throws SQLException {
+        if (commitNanos > 0) sleepUntil(System.nanoTime() + commitNanos, 0);
+    }
+
+    /** One round trip: maybe fail, wait for a server slot, then take a sampled service time. */
+    void execute(int timeoutSeconds) throws SQLException {
+        if (isDown()) throw connectionReset();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (errorRate > 0 && errors.length > 0 && random.nextDouble() < errorRate) {
+            throw transientError(errors[random.nextInt(errors.length)]);
+        }
+        long start = System.nanoTime();
+        long deadline = timeoutSeconds > 0 ? start + TimeUnit.SECONDS.toNanos(timeoutSeconds) : 0;
+        if (slots != null) {
+            try {
+                if (deadline == 0) {
+                    slots.acquire();
+                } else if (!slots.tryAcquire(deadline - start, TimeUnit.NANOSECONDS)) {
+                    throw timeout();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw cancelled();
+            }
+        }
+        try {
+            long service = sampleLatencyNanos(random);
+            if (service > 0) sleepUntil(System.nanoTime() + service, deadline);
+        } finally {
+            if (slots != null) slots.release();
+        }
+    }
+
+    private long sampleLatencyNanos(ThreadLocalRandom random) {
+        double ms = switch (latency) {
+            case FIXED -> latencyMs;
+            case NORMAL -> latencyMs + stdDevMs * random.nextGaussian();
+            case LONGTAIL -> latencyMs * Math.exp(sigma * random.nextGaussian());
+        };
+        return (long) (Math.max(0, ms) * 1_000_000);
+    }
+
+    private static void sleepUntil(long until, long deadline) throws SQLException {
+        long end = deadline > 0 ? Math.min(until, deadline) : until;
+        for (long now = System.nanoTime(); now < end; now = System.nanoTime()) {
+            LockSupport.parkNanos(end - now);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw cancelled();
+            }
+        }
+        if (end < until) throw timeout();
+    }
+
+    private static SQLException transientError(int code) {
+        return switch (code) {
+            case 1205 -> new SQLException("Transaction (Process ID 57) was deadlocked on lock resources with another process "
+                    + "and has been chosen as the deadlock victim. Rerun the transaction.", "40001", code);
+            case 40501 -> new SQLException("The service is currently busy. Retry the request after 10 seconds.", "S0001", code);
+            case 40613 -> new SQLException("Database 'simulated' on server 'simulated' is not currently available. "
+                    + "Please retry the connection later.", "S0001", code);
+            default -> new SQLException("Simulated error " + code, "S0001", code);
+        };
+    }
+
+    static SQLException connectionReset() {
+        return new SQLException("Connection reset", "08S01");
+    }
+
+    private static SQLTimeoutException timeout() {
+        return new SQLTimeoutException("The query has timed out.", "HY008");
+    }
+
+    private static SQLException cancelled() {
+        return new SQLException("The query was canceled.", "HY008");
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.sqlstresstool.service;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Set;
+
+/**
+ * Classifies failures by SQL Server error number. Throttling and transient numbers follow the Azure SQL
+ * guidance on retryable errors; timeouts are kept apart because retrying them adds load rather than waiting it out.
+ */
+public final class SqlErrors {
+
+    public static final String THROTTLING = "throttling";
+    public static final String TRANSIENT = "transient";
+    public static final String TIMEOUT = "timeout";
+    public static final String OTHER = "other";
+    public static final int DEADLOCK = 1205;
+
+    // Resource governance: service busy, request/session limits, elastic pool limits
+    private static final Set<Integer> THROTTLING_CODES = Set.of(40501, 10928, 10929, 49918, 49919, 49920);
+    // Failover, reconfiguration, login-time unavailability and deadlock victims
+    private static final Set<Integer> TRANSIENT_CODES = Set.of(40613, 40197, 40540, 40143, 4060, 4221, 233, 64, DEADLOCK);
+
+    private SqlErrors() {
+    }
+
+    /** SQL error number of the first SQLException in the cause chain, or -1 when there is none. */
+    public static int errorCode(Throwable t) {
+        for (Throwable c = t; c != null; c = c.getCause()) {
+            if (c instanceof SQLException sql) return sql.getErrorCode();
+        }
+        return -1;
+    }
+
+    public static String category(Throwable t) {
+        if (t instanceof SQLTimeoutException) return TIMEOUT;
+        int code = errorCode(t);
+        if (THROTTLING_CODES.contains(code)) return THROTTLING;
+        if (TRANSIENT_CODES.contains(code)) return TRANSIENT;
+        return OTHER;
+    }
+
+    /** Worth retrying: the server asked the client to back off or the failure is known to clear by itself. */
+    public static boolean isRetryable(Throwable t) {
+        String category = category(t);
+        return category.equals(THROTTLING) || category.equals(TRANSIENT);
+    }
+
+    /** Signals that the server is overloaded, so an adaptive limit should back off. */
+    public static boolean isOverload(Throwable t) {
+        String category = category(t);
+        return category.equals(THROTTLING) || category.equals(TIMEOUT);
+    }
+}
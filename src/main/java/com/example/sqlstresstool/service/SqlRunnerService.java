@@ -1,166 +1,951 @@
 package com.example.sqlstresstool.service;
 
+import com.microsoft.sqlserver.jdbc.ISQLServerConnection;
+import com.microsoft.sqlserver.jdbc.ISQLServerStatement;
 import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
 import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Path;
 import java.sql.*;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class SqlRunnerService {
 
+    private static final double[] REPORTED_PERCENTILES = {50, 90, 95, 99, 99.9, 99.99};
+    private static final int MAX_ERROR_SAMPLES = 5;
+    private static final double MIN_TARGET_RATE = 0.1;
+    // An operation dispatched more than 1ms after its slot on the timeline counts as late
+    private static final long LATE_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long CANCEL_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    // How long a worker above the adaptive or ramp limit waits before checking the limit again
+    private static final long LIMITED_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    // Meters of the last few finished runs stay scrapeable; older ones are removed from the registry
+    private static final int RETAINED_RUN_METERS = 5;
+
     private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final Path csvDirectory;
+    private final Deque<RunMeters> retainedMeters = new ArrayDeque<>();
 
-    public SqlRunnerService(DataSource dataSource) {
+    public SqlRunnerService(DataSource dataSource, MeterRegistry meterRegistry,
+                            @Value("${stress.csv.dir:data/csv}") Path csvDirectory) {
         this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.csvDirectory = csvDirectory;
     }
 
+    public Path getCsvDirectory() { return csvDirectory; }
+
     public StressResult run(StressRequest req) {
-        int iterations = Math.max(1, req.getIterations());
+        return run(req, new RunControl());
+    }
+
+    public StressResult run(StressRequest req, RunControl control) {
+        List<LoadStage> stages = LoadProfile.parse(req.getProfile());
+        if (Disruption.isRequested(req) && (!stages.isEmpty() || PoolSweep.isRequested(req))) {
+            throw new IllegalArgumentException("A disruption cannot be combined with a load profile or a pool sweep");
+        }
+        Disruption.validate(req, dataSource);
+        RunMeters meters = new RunMeters(meterRegistry, control.getRunId());
+        // One trace file for the whole run, across profile steps and sweep cells
+        TraceWriter trace = req.isTrace() ? TraceWriter.open(control.traceFile(), Workload.from(req, csvDirectory)) : null;
+        StressResult res = null;
+        try {
+            if (PoolSweep.isRequested(req)) {
+                if (!stages.isEmpty()) throw new IllegalArgumentException("A pool sweep cannot be combined with a load profile");
+                res = runSweep(req, control, meters, trace);
+            } else if (!stages.isEmpty()) {
+                res = runProfile(req, stages, control, meters, trace);
+            } else {
+                res = runSingle(req, control, meters, trace);
+            }
+            return res;
+        } finally {
+            if (trace != null) trace.finish(res);
+            retain(meters);
+            control.forgetConfigured();
+        }
+    }
+
+    /** Removes the meters of the retained runs; called when a runner is discarded with its pool. */
+    void closeMeters() {
+        synchronized (retainedMeters) {
+            while (!retainedMeters.isEmpty()) {
+                retainedMeters.removeFirst().close();
+            }
+        }
+    }
+
+    private void retain(RunMeters meters) {
+        synchronized (retainedMeters) {
+            retainedMeters.addLast(meters);
+            while (retainedMeters.size() > RETAINED_RUN_METERS) {
+                retainedMeters.removeFirst().close();
+            }
+        }
+    }
+
+    private StressResult runSingle(StressRequest req, RunControl control, RunMeters meters, TraceWriter trace) {
+        return runSingle(req, control, meters, trace, null);
+    }
+
+    // A ramp stage of a profile passes its ramp, which moves the limit or the rate of the run with time
+    private StressResult runSingle(StressRequest req, RunControl control, RunMeters meters, TraceWriter trace,
+                                   LoadRamp ramp) {
         int concurrency = Math.max(1, req.getConcurrency());
-        int timeoutSeconds = Math.max(1, req.getTimeoutSeconds());
+        Workload workload = Workload.from(req, csvDirectory);
+        meters.bind(workload);
+        StatementPlan batchPlan = workload.getBatchPlan();
+        TransactionPlan txn = TransactionPlan.from(req, workload);
         int delayMs = Math.max(0, req.getDelayMs());
+        LoadMode loadMode = req.getLoadMode() == null ? LoadMode.CLOSED_LOOP : req.getLoadMode();
+        boolean constantRate = loadMode == LoadMode.CONSTANT_RATE;
+        boolean adaptive = loadMode == LoadMode.ADAPTIVE;
+        RetryPolicy retry = RetryPolicy.from(req);
+        double targetRate = Math.max(MIN_TARGET_RATE, req.getTargetRate());
+        int durationSeconds = Math.max(1, req.getDurationSeconds());
+        long iterations = constantRate
+                ? Math.max(1, Math.round(targetRate * durationSeconds))
+                : Math.max(1, req.getIterations());
+        boolean closedLoop = loadMode == LoadMode.CLOSED_LOOP;
 
-        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
-        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
-        List<String> errorSamples = Collections.synchronizedList(new ArrayList<>());
-        List<List<String>> sampleRows = Collections.synchronizedList(new ArrayList<>());
-        final int maxErrorSamples = 5;
+        EngineType engineType = req.getEngine() == null ? EngineType.PLATFORM : req.getEngine();
+        RunMetrics metrics = new RunMetrics(concurrency, constantRate, batchPlan != null, txn != null,
+                workload.isMix() ? workload.size() : 0, meters, trace);
+        LiveStats live = control.getLiveStats();
+        String isolationNote = txn == null ? null : isolationNote(txn.getIsolation());
 
+        ClientResourceMonitor resources = ClientResourceMonitor.start();
+        PoolMonitor pool = PoolMonitor.start(dataSource);
+        AdaptiveConcurrency limiter = adaptive ? AdaptiveConcurrency.start(concurrency) : null;
+        if (trace != null) trace.ensureSlots(concurrency);
         Instant start = Instant.now();
-        CountDownLatch latch = new CountDownLatch(iterations);
+        Disruption disruption = null;
+        long endNanos = 0;
+        int peakThreads = 0;
 
-        for (int i = 0; i < iterations; i++) {
-            pool.submit(() -> {
-                try {
-                    if (delayMs > 0) Thread.sleep(delayMs);
-                    long t0 = System.nanoTime();
-                    executeOnce(req, timeoutSeconds, sampleRows);
-                    long t1 = System.nanoTime();
-                    latencies.add(TimeUnit.NANOSECONDS.toMillis(t1 - t0));
-                } catch (Exception ex) {
-                    synchronized (errorSamples) {
-                        if (errorSamples.size() < maxErrorSamples) {
-                            errorSamples.add(ex.getClass().getSimpleName() + ": " + ex.getMessage());
+        // One long-lived task per worker slot, whatever the run length, so client memory does not grow with it.
+        // CLOSED_LOOP and CONSTANT_RATE workers claim operation numbers from a shared counter until the total
+        // is reached; TIMED keeps each worker busy until the deadline, ADAPTIVE and a concurrency ramp do the
+        // same but only for workers below the current limit. CONSTANT_RATE is open loop: every operation has a
+        // fixed slot on the timeline and its latency is measured from that intended start, so queueing behind
+        // slow calls is not hidden.
+        try (ExecutionEngine engine = ExecutionEngine.create(engineType, concurrency)) {
+            final long totalOps = iterations;
+            final double nanosPerOp = 1_000_000_000.0 / targetRate;
+            final long delayNanos = TimeUnit.MILLISECONDS.toNanos(delayMs);
+            final long timelineStart = System.nanoTime();
+            final long deadline = timelineStart + TimeUnit.SECONDS.toNanos(durationSeconds);
+            AtomicLong nextOp = new AtomicLong();
+            CountDownLatch latch = new CountDownLatch(concurrency);
+            final Disruption scheduled = Disruption.schedule(req, dataSource, control, concurrency, timelineStart);
+            disruption = scheduled;
+
+            for (int w = 0; w < concurrency; w++) {
+                engine.submit(slot -> {
+                    try {
+                        while (!control.isCancelled()) {
+                            long intended;
+                            long now;
+                            if (constantRate) {
+                                long op = nextOp.getAndIncrement();
+                                if (op >= totalOps) break;
+                                intended = timelineStart + (ramp != null ? ramp.intendedOffsetNanos(op) : (long) (op * nanosPerOp));
+                                if (!pauseUntil(intended, control)) break;
+                                now = System.nanoTime();
+                                long lag = now - intended;
+                                if (lag > LATE_THRESHOLD_NANOS) {
+                                    metrics.getLate().increment();
+                                    metrics.getMaxLagNanos().accumulate(lag);
+                                }
+                            } else {
+                                if ((limiter != null && !limiter.permits(slot))
+                                        || (ramp != null && !ramp.permits(slot, System.nanoTime() - timelineStart))) {
+                                    if (System.nanoTime() >= deadline) break;
+                                    LockSupport.parkNanos(LIMITED_IDLE_NANOS);
+                                    continue;
+                                }
+                                if (closedLoop && nextOp.getAndIncrement() >= totalOps) break;
+                                if (delayNanos > 0 && !pauseUntil(System.nanoTime() + delayNanos, control)) break;
+                                now = System.nanoTime();
+                                if (!closedLoop && now >= deadline) break;
+                                intended = now;
+                            }
+                            // In transaction mode the statements are picked, and recorded, inside the transaction
+                            int s = txn == null ? workload.pick() : -1;
+                            try {
+                                execute(s < 0 ? null : workload.getPlan(s), txn, slot, metrics, control, retry, limiter);
+                                long t1 = System.nanoTime();
+                                metrics.getLatency().recordNanos(slot, t1 - intended);
+                                if (s >= 0) {
+                                    metrics.recordStatement(slot, s, t1 - intended);
+                                    meters.recordSuccess(s, t1 - intended);
+                                }
+                                if (constantRate) metrics.getService().recordNanos(slot, t1 - now);
+                                if (trace != null) trace.record(slot, intended, t1 - intended, s, 0);
+                                if (scheduled != null) scheduled.onSuccess(slot, intended, t1);
+                                if (live != null) live.record(slot, t1, t1 - intended);
+                            } catch (Exception ex) {
+                                // A statement cancelled because the run was cancelled is not a failure of the target
+                                if (control.isCancelled()) break;
+                                metrics.getErrors().increment();
+                                if (s >= 0) {
+                                    metrics.recordStatementError(s);
+                                    meters.recordError(s, ex);
+                                }
+                                long t1 = System.nanoTime();
+                                if (live != null) live.recordError(t1);
+                                if (trace != null) trace.record(slot, intended, t1 - intended, s, TraceWriter.status(ex));
+                                if (scheduled != null) scheduled.onError(slot, t1);
+                                metrics.addErrorSample(ex);
+                            }
                         }
+                    } finally {
+                        latch.countDown();
                     }
-                } finally {
-                    latch.countDown();
-                }
-            });
-        }
+                });
+            }
 
-        try {
             latch.await();
+            endNanos = System.nanoTime();
+            peakThreads = engine.getPeakPlatformThreads();
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-        } finally {
-            pool.shutdown();
         }
 
         Instant end = Instant.now();
+        PoolUsage poolUsage = pool.finish();
         long durationMs = Duration.between(start, end).toMillis();
-        int successCount = latencies.size();
-        int errorCount = iterations - successCount;
+        LatencyHistogram histogram = metrics.getLatency().merge();
+        StressResult res = new StressResult();
+        if (limiter != null) limiter.finish(res);
+        if (disruption != null) disruption.finish(res, endNanos == 0 ? System.nanoTime() : endNanos);
+        long successCount = histogram.getTotalCount();
+        long errors = metrics.getErrors().sum();
 
-        // Format timestamps
-        DateTimeFormatter formatter = DateTimeFormatter.ISO_INSTANT;
-        String startTime = formatter.format(start);
-        String finishTime = formatter.format(end);
+        res.setTotalIterations(loadMode == LoadMode.TIMED || adaptive || control.isCancelled() ? successCount + errors : iterations);
+        res.setCancelled(control.isCancelled());
+        res.setConcurrency(concurrency);
+        res.setDurationMs(durationMs);
+        res.setStartTime(DateTimeFormatter.ISO_INSTANT.format(start));
+        res.setFinishTime(DateTimeFormatter.ISO_INSTANT.format(end));
+        res.setSuccessCount(successCount);
+        res.setErrorCount(errors);
+        applyLatencyStats(res, histogram);
+        res.setEngine(engineType);
+        res.setResources(resources.finish(durationMs, peakThreads));
+        res.setPool(poolUsage);
+        res.setPhases(PhaseLatency.withShares(List.of(
+                PhaseLatency.of(PhaseLatency.ACQUIRE, metrics.getAcquire().merge()),
+                PhaseLatency.of(PhaseLatency.EXECUTE, metrics.getExecute().merge()),
+                PhaseLatency.of(PhaseLatency.FETCH, metrics.getFetch().merge()))));
+        res.setLoadMode(loadMode);
+        res.setAchievedRate(durationMs > 0 ? (successCount + errors) * 1000.0 / durationMs : 0);
+        if (constantRate) {
+            res.setTargetRate(targetRate);
+            res.setLateCount(metrics.getLate().sum());
+            res.setMaxLagMs(metrics.getMaxLagNanos().get() / 1_000_000.0);
+            LatencyHistogram service = metrics.getService().merge();
+            res.setServiceHistogram(service);
+            res.setServicePercentiles(percentileTable(service));
+        }
+        long rowsFetched = metrics.getFetchedRows().sum();
+        if (rowsFetched > 0) {
+            res.setRowsFetched(rowsFetched);
+            res.setFetchRowsPerSec(durationMs > 0 ? rowsFetched * 1000.0 / durationMs : 0);
+            res.setFetchBytesPerSec(durationMs > 0 ? metrics.getFetchedBytes().sum() * 1000.0 / durationMs : 0);
+            res.setCappedResults(metrics.getCappedResults().sum());
+        }
+        if (workload.isMix()) {
+            List<StatementStats> statements = new ArrayList<>();
+            for (int i = 0; i < workload.size(); i++) {
+                statements.add(StatementStats.of(workload.getName(i), workload.getWeightPercent(i),
+                        metrics.statementHistogram(i), metrics.statementErrors(i), successCount + errors));
+            }
+            res.setStatements(statements);
+        }
+        if (batchPlan != null) {
+            long rows = metrics.getRows().sum();
+            LatencyHistogram batches = metrics.getBatch().merge();
+            res.setBatchSize(batchPlan.getBatchSize());
+            res.setBatchesPerCommit(batchPlan.getBatchesPerCommit());
+            res.setRowsWritten(rows);
+            res.setRowsPerSec(durationMs > 0 ? rows * 1000.0 / durationMs : 0);
+            res.setBatchPercentiles(percentileTable(batches));
+            res.setPerRowAvgMs(rows > 0 ? batches.getMeanMicros() * batches.getTotalCount() / rows / 1000.0 : 0);
+        }
+        if (txn != null) {
+            res.setTransactionSize(txn.getSize());
+            res.setIsolationLevel(txn.getIsolation());
+            res.setIsolationNote(isolationNote);
+            applyTransactionStats(res, PhaseLatency.of(PhaseLatency.COMMIT, metrics.getCommit().merge()),
+                    metrics.getAborts().sum(), metrics.getDeadlocks().sum(), durationMs);
+        }
+        res.setErrorCodes(metrics.errorCounts());
+        res.setRetries(metrics.getRetries().sum());
+        res.setErrorSamples(metrics.getErrorSamples());
+        res.setSampleRows(metrics.getSampleRows());
+        return res;
+    }
 
-        // stats
-        Collections.sort(latencies);
-        long avg = latencies.isEmpty() ? 0 : (long) latencies.stream().mapToLong(Long::longValue).average().orElse(0);
-        long p50 = percentile(latencies, 50);
-        long p95 = percentile(latencies, 95);
-        long p99 = percentile(latencies, 99);
+    private StressResult runProfile(StressRequest req, List<LoadStage> stages, RunControl control, RunMeters meters,
+                                    TraceWriter trace) {
+        ClientResourceMonitor resources = ClientResourceMonitor.start();
+        PoolMonitor pool = PoolMonitor.start(dataSource);
+        Instant start = Instant.now();
+        int peakThreads = 0;
+        LatencyHistogram measured = new LatencyHistogram();
+        LatencyHistogram[] measuredPhases = {new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram()};
+        Workload workload = Workload.from(req, csvDirectory);
+        LatencyHistogram[] measuredStatements = new LatencyHistogram[workload.size()];
+        long[] measuredStatementErrors = new long[workload.size()];
+        Arrays.setAll(measuredStatements, i -> new LatencyHistogram());
+        List<StageResult> stageResults = new ArrayList<>();
+        List<String> errorSamples = new ArrayList<>();
+        List<List<String>> sampleRows = new ArrayList<>();
+        List<List<ErrorCount>> measuredErrorCodes = new ArrayList<>();
+        long measuredRetries = 0;
+        LatencyHistogram measuredCommit = new LatencyHistogram();
+        long measuredAborts = 0;
+        long measuredDeadlocks = 0;
+        long measuredErrors = 0;
+        long measuredMs = 0;
+        long measuredRowsFetched = 0;
+        long measuredCappedResults = 0;
+        double measuredBytesFetched = 0;
+        double maxSustainable = 0;
+        String kneeLoad = null;
+
+        for (LoadStage stage : stages) {
+            boolean kneeBreached = false;
+            for (int step = 0; step < stage.getStepCount() && !control.isCancelled() && !kneeBreached; step++) {
+                // A linear ramp is a single run whose concurrency limit or target rate follows the ramp
+                LoadRamp ramp = stage.isLinearRamp() ? new LoadRamp(stage) : null;
+                LoadStage.Load load = ramp != null ? ramp.getRunLoad() : stage.loadAt(step);
+                StressRequest sub = req.copy();
+                sub.setProfile(null);
+                sub.setDurationSeconds(stage.getStepSeconds());
+                if (load.rate() > 0) {
+                    sub.setLoadMode(LoadMode.CONSTANT_RATE);
+                    sub.setTargetRate(load.rate());
+                } else {
+                    sub.setLoadMode(LoadMode.TIMED);
+                    sub.setConcurrency(load.concurrency());
+                }
+                StressResult r = runSingle(sub, control, meters, trace, ramp);
+                peakThreads = Math.max(peakThreads, r.getResources().getPeakPlatformThreads());
+                if (errorSamples.size() < MAX_ERROR_SAMPLES) {
+                    errorSamples.addAll(r.getErrorSamples().subList(0,
+                            Math.min(r.getErrorSamples().size(), MAX_ERROR_SAMPLES - errorSamples.size())));
+                }
+                if (sampleRows.isEmpty()) sampleRows.addAll(r.getSampleRows());
+
+                StageResult sr = StageResult.of(stage, step, r.getHistogram(), r.getErrorCount(), r.getDurationMs());
+                if (stage.getKind() == LoadStage.Kind.KNEE) {
+                    kneeBreached = !stage.withinLimits(sr.getP99Ms(), sr.getErrorRate());
+                    sr.setPassed(!kneeBreached);
+                    if (!kneeBreached && sr.getThroughput() > maxSustainable) {
+                        maxSustainable = sr.getThroughput();
+                        kneeLoad = sr.getLoad();
+                    }
+                }
+                stageResults.add(sr);
+                if (!sr.isWarmup()) {
+                    measured.add(r.getHistogram());
+                    for (int i = 0; i < measuredPhases.length; i++) {
+                        measuredPhases[i].add(r.getPhases().get(i).getHistogram());
+                    }
+                    for (int i = 0; r.getStatements() != null && i < measuredStatements.length; i++) {
+                        measuredStatements[i].add(r.getStatements().get(i).getHistogram());
+                        measuredStatementErrors[i] += r.getStatements().get(i).getErrors();
+                    }
+                    measuredErrors += r.getErrorCount();
+                    measuredMs += r.getDurationMs();
+                    measuredRowsFetched += r.getRowsFetched();
+                    measuredCappedResults += r.getCappedResults();
+                    measuredBytesFetched += r.getFetchBytesPerSec() * r.getDurationMs() / 1000.0;
+                    measuredErrorCodes.add(r.getErrorCodes());
+                    measuredRetries += r.getRetries();
+                    if (r.getCommit() != null) {
+                        measuredCommit.add(r.getCommit().getHistogram());
+                        measuredAborts += r.getAborts();
+                        measuredDeadlocks += r.getDeadlocks();
+                    }
+                }
+            }
+        }
+
+        Instant end = Instant.now();
+        PoolUsage poolUsage = pool.finish();
+        long durationMs = Duration.between(start, end).toMillis();
+        long successCount = measured.getTotalCount();
 
         StressResult res = new StressResult();
-        res.setTotalIterations(iterations);
-        res.setConcurrency(concurrency);
+        res.setTotalIterations(successCount + measuredErrors);
+        res.setCancelled(control.isCancelled());
+        res.setConcurrency(Math.max(1, req.getConcurrency()));
         res.setDurationMs(durationMs);
-        res.setStartTime(startTime);
-        res.setFinishTime(finishTime);
+        res.setStartTime(DateTimeFormatter.ISO_INSTANT.format(start));
+        res.setFinishTime(DateTimeFormatter.ISO_INSTANT.format(end));
+        res.setSuccessCount(successCount);
+        res.setErrorCount(measuredErrors);
+        applyLatencyStats(res, measured);
+        res.setEngine(req.getEngine() == null ? EngineType.PLATFORM : req.getEngine());
+        res.setResources(resources.finish(durationMs, peakThreads));
+        res.setPool(poolUsage);
+        res.setPhases(PhaseLatency.withShares(List.of(
+                PhaseLatency.of(PhaseLatency.ACQUIRE, measuredPhases[0]),
+                PhaseLatency.of(PhaseLatency.EXECUTE, measuredPhases[1]),
+                PhaseLatency.of(PhaseLatency.FETCH, measuredPhases[2]))));
+        res.setLoadMode(req.getLoadMode());
+        res.setAchievedRate(measuredMs > 0 ? (successCount + measuredErrors) * 1000.0 / measuredMs : 0);
+        res.setStages(stageResults);
+        if (measuredRowsFetched > 0 && measuredMs > 0) {
+            res.setRowsFetched(measuredRowsFetched);
+            res.setFetchRowsPerSec(measuredRowsFetched * 1000.0 / measuredMs);
+            res.setFetchBytesPerSec(measuredBytesFetched * 1000.0 / measuredMs);
+            res.setCappedResults(measuredCappedResults);
+        }
+        if (workload.isMix()) {
+            List<StatementStats> statements = new ArrayList<>();
+            for (int i = 0; i < workload.size(); i++) {
+                statements.add(StatementStats.of(workload.getName(i), workload.getWeightPercent(i),
+                        measuredStatements[i], measuredStatementErrors[i], successCount + measuredErrors));
+            }
+            res.setStatements(statements);
+        }
+        if (req.getTransactionSize() > 0) {
+            res.setTransactionSize(req.getTransactionSize());
+            res.setIsolationLevel(req.getIsolationLevel());
+            applyTransactionStats(res, PhaseLatency.of(PhaseLatency.COMMIT, measuredCommit), measuredAborts,
+                    measuredDeadlocks, measuredMs);
+        }
+        if (kneeLoad != null) {
+            res.setMaxSustainableThroughput(maxSustainable);
+            res.setKneeLoad(kneeLoad);
+        }
+        res.setErrorCodes(ErrorCount.merge(measuredErrorCodes));
+        res.setRetries(measuredRetries);
+        res.setErrorSamples(errorSamples);
+        res.setSampleRows(sampleRows);
+        return res;
+    }
+
+    private StressResult runSweep(StressRequest req, RunControl control, RunMeters meters, TraceWriter trace) {
+        if (!(dataSource instanceof HikariDataSource hikari)) {
+            throw new IllegalArgumentException("A pool sweep needs the HikariCP DataSource");
+        }
+        List<PoolSweep.Step> steps = PoolSweep.steps(req, hikari.getMaximumPoolSize());
+        int originalMaxPool = hikari.getMaximumPoolSize();
+        int originalMinIdle = hikari.getMinimumIdle();
+        long originalConnectionTimeout = hikari.getConnectionTimeout();
+        Instant start = Instant.now();
+        LatencyHistogram total = new LatencyHistogram();
+        LatencyHistogram[] totalPhases = {new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram()};
+        List<SweepCell> cells = new ArrayList<>();
+        List<String> errorSamples = new ArrayList<>();
+        List<List<String>> sampleRows = new ArrayList<>();
+        List<List<ErrorCount>> errorCodes = new ArrayList<>();
+        long errors = 0;
+        long retries = 0;
+        long measuredMs = 0;
+        int maxConcurrency = 1;
+
+        try {
+            for (PoolSweep.Step step : steps) {
+                if (control.isCancelled()) break;
+                try {
+                    PoolSweep.apply(hikari, step);
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Could not fill the pool to " + step.poolSize()
+                            + " connections: " + e.getMessage(), e);
+                }
+                StressRequest sub = req.copy();
+                sub.setSweepPoolSizes("");
+                sub.setSweepConcurrency("");
+                sub.setSweepConnectionTimeouts("");
+                sub.setConcurrency(step.concurrency());
+                StressResult r = runSingle(sub, control, meters, trace);
+                cells.add(SweepCell.of(step, r));
+                total.add(r.getHistogram());
+                for (int i = 0; i < totalPhases.length; i++) {
+                    totalPhases[i].add(r.getPhases().get(i).getHistogram());
+                }
+                errors += r.getErrorCount();
+                retries += r.getRetries();
+                measuredMs += r.getDurationMs();
+                errorCodes.add(r.getErrorCodes());
+                maxConcurrency = Math.max(maxConcurrency, step.concurrency());
+                if (errorSamples.size() < MAX_ERROR_SAMPLES) {
+                    errorSamples.addAll(r.getErrorSamples().subList(0,
+                            Math.min(r.getErrorSamples().size(), MAX_ERROR_SAMPLES - errorSamples.size())));
+                }
+                if (sampleRows.isEmpty()) sampleRows.addAll(r.getSampleRows());
+            }
+        } finally {
+            PoolSweep.restore(hikari, originalMaxPool, originalMinIdle, originalConnectionTimeout);
+        }
+
+        Instant end = Instant.now();
+        long successCount = total.getTotalCount();
+        StressResult res = new StressResult();
+        res.setTotalIterations(successCount + errors);
+        res.setCancelled(control.isCancelled());
+        res.setConcurrency(maxConcurrency);
+        res.setDurationMs(Duration.between(start, end).toMillis());
+        res.setStartTime(DateTimeFormatter.ISO_INSTANT.format(start));
+        res.setFinishTime(DateTimeFormatter.ISO_INSTANT.format(end));
         res.setSuccessCount(successCount);
-        res.setErrorCount(errorCount);
-        res.setAvgMs(avg);
-        res.setP50Ms(p50);
-        res.setP95Ms(p95);
-        res.setP99Ms(p99);
+        res.setErrorCount(errors);
+        applyLatencyStats(res, total);
+        res.setEngine(req.getEngine() == null ? EngineType.PLATFORM : req.getEngine());
+        res.setPhases(PhaseLatency.withShares(List.of(
+                PhaseLatency.of(PhaseLatency.ACQUIRE, totalPhases[0]),
+                PhaseLatency.of(PhaseLatency.EXECUTE, totalPhases[1]),
+                PhaseLatency.of(PhaseLatency.FETCH, totalPhases[2]))));
+        res.setLoadMode(req.getLoadMode());
+        res.setAchievedRate(measuredMs > 0 ? (successCount + errors) * 1000.0 / measuredMs : 0);
+        res.setSweep(cells);
+        PoolSweep.recommend(cells, res);
+        res.setErrorCodes(ErrorCount.merge(errorCodes));
+        res.setRetries(retries);
         res.setErrorSamples(errorSamples);
         res.setSampleRows(sampleRows);
         return res;
     }
 
-    private static long percentile(List<Long> sorted, int p) {
-        if (sorted.isEmpty()) return 0;
-        int idx = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
-        idx = Math.max(0, Math.min(idx, sorted.size() - 1));
-        return sorted.get(idx);
+    static void applyLatencyStats(StressResult res, LatencyHistogram histogram) {
+        res.setAvgMs(histogram.getMeanMicros() / 1000.0);
+        res.setMinMs(toMs(histogram.getMinMicros()));
+        res.setMaxMs(toMs(histogram.getMaxMicros()));
+        res.setStdDevMs(histogram.getStdDevMicros() / 1000.0);
+        res.setP50Ms(toMs(histogram.getValueAtPercentile(50)));
+        res.setP95Ms(toMs(histogram.getValueAtPercentile(95)));
+        res.setP99Ms(toMs(histogram.getValueAtPercentile(99)));
+        res.setPercentiles(percentileTable(histogram));
+        res.setHistogram(histogram);
+    }
+
+    /** Committed transactions and their statements per second; every successful operation is one commit. */
+    static void applyTransactionStats(StressResult res, PhaseLatency commit, long aborts, long deadlocks, long durationMs) {
+        res.setCommit(commit);
+        res.setAborts(aborts);
+        res.setDeadlocks(deadlocks);
+        res.setTransactionsPerSec(durationMs > 0 ? res.getSuccessCount() * 1000.0 / durationMs : 0);
+        res.setStatementsPerSec(durationMs > 0 ? res.getSuccessCount() * res.getTransactionSize() * 1000.0 / durationMs : 0);
     }
 
-    private void executeOnce(StressRequest req, int timeoutSeconds, List<List<String>> sampleRows) throws Exception {
+    /**
+     * Whether the database's row-versioning options give the chosen level the behavior its name promises:
+     * RCSI is a database option, not a session setting, and snapshot transactions fail unless it is allowed.
+     * Null when they match or the target is not SQL Server.
+     */
+    private String isolationNote(IsolationLevel level) {
         try (Connection conn = dataSource.getConnection()) {
-            try (Statement st = conn.createStatement()) {
-                st.setQueryTimeout(timeoutSeconds);
-
-                String sql = req.getSqlText();
-                boolean isQuery = isSelect(sql);
-
-                if (isQuery) {
-                    if (req.getResultMode() == ResultMode.NONE) {
-                        // Execute without fetching rows
-                        st.execute(sql);
-                        return;
-                    } else if (req.getResultMode() == ResultMode.SCALAR) {
-                        try (ResultSet rs = st.executeQuery(sql)) {
-                            if (rs.next()) {
-                                List<String> row = new ArrayList<>();
-                                row.add(rs.getString(1));
-                                addSampleRow(sampleRows, row, req.getMaxRows());
-                            }
-                        }
-                    } else { // ROWS
-                        try (ResultSet rs = st.executeQuery(sql)) {
-                            int cols = rs.getMetaData().getColumnCount();
-                            int count = 0;
-                            while (rs.next() && count < req.getMaxRows()) {
-                                List<String> row = new ArrayList<>();
-                                for (int c = 1; c <= cols; c++) {
-                                    row.add(rs.getString(c));
-                                }
-                                addSampleRow(sampleRows, row, req.getMaxRows());
-                                count++;
-                            }
-                        }
+            if (!conn.getMetaData().getDatabaseProductName().equals("Microsoft SQL Server")) return null;
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT is_read_committed_snapshot_on, snapshot_isolation_state "
+                         + "FROM sys.databases WHERE database_id = DB_ID()")) {
+                if (!rs.next()) return null;
+                boolean rcsi = rs.getBoolean(1);
+                boolean snapshotAllowed = rs.getInt(2) == 1;
+                if (level == IsolationLevel.READ_COMMITTED && rcsi) {
+                    return "READ_COMMITTED_SNAPSHOT is ON for this database, so READ COMMITTED reads used row versions "
+                            + "(RCSI) rather than shared locks.";
+                }
+                if (level == IsolationLevel.READ_COMMITTED_SNAPSHOT && !rcsi) {
+                    return "READ_COMMITTED_SNAPSHOT is OFF for this database, so reads took shared locks; enable it with "
+                            + "ALTER DATABASE CURRENT SET READ_COMMITTED_SNAPSHOT ON.";
+                }
+                if (level == IsolationLevel.SNAPSHOT && !snapshotAllowed) {
+                    return "ALLOW_SNAPSHOT_ISOLATION is OFF for this database, so snapshot transactions fail with "
+                            + "error 3952; enable it with ALTER DATABASE CURRENT SET ALLOW_SNAPSHOT_ISOLATION ON.";
+                }
+                return null;
+            }
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    static Map<String, Double> percentileTable(LatencyHistogram histogram) {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (double p : REPORTED_PERCENTILES) {
+            percentiles.put(percentileLabel(p), toMs(histogram.getValueAtPercentile(p)));
+        }
+        return percentiles;
+    }
+
+    private static double toMs(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static String percentileLabel(double p) {
+        return p == Math.rint(p) ? "p" + (long) p : "p" + p;
+    }
+
+    // One operation including retries. Every failed attempt is counted by error number and overload
+    // failures lower the adaptive limit; the backoff between attempts is part of the operation's latency.
+    private void execute(StatementPlan plan, TransactionPlan txn, int slot, RunMetrics metrics, RunControl control,
+                         RetryPolicy retry, AdaptiveConcurrency limiter) throws Exception {
+        for (int attempt = 0; ; attempt++) {
+            long t0 = System.nanoTime();
+            try {
+                executeOnce(plan, txn, slot, metrics, control);
+                if (limiter != null) limiter.onSuccess(System.nanoTime() - t0);
+                return;
+            } catch (Exception ex) {
+                metrics.recordFailure(ex);
+                if (limiter != null && SqlErrors.isOverload(ex)) limiter.onOverload();
+                if (!retry.shouldRetry(attempt, ex) || control.isCancelled()) throw ex;
+                metrics.getRetries().increment();
+                if (!pauseUntil(System.nanoTime() + retry.backoffNanos(attempt), control)) throw ex;
+            }
+        }
+    }
+
+    // Parks until the given nanoTime, waking every CANCEL_CHECK_NANOS; false when the run was cancelled meanwhile
+    private static boolean pauseUntil(long until, RunControl control) {
+        for (long now = System.nanoTime(); now < until; now = System.nanoTime()) {
+            if (control.isCancelled()) return false;
+            LockSupport.parkNanos(Math.min(until - now, CANCEL_CHECK_NANOS));
+        }
+        return !control.isCancelled();
+    }
+
+    // Phases: pool acquire -> execute until the first result is available -> fetch of the rows read.
+    // Statements without a result set record no fetch phase.
+    private void executeOnce(StatementPlan plan, TransactionPlan txn, int slot, RunMetrics metrics,
+                             RunControl control) throws Exception {
+        metrics.getMeters().begin();
+        try {
+            if (txn != null) {
+                executeTransaction(txn, slot, metrics, control);
+            } else {
+                executeOnConnection(plan, slot, metrics, control);
+            }
+        } finally {
+            metrics.getMeters().end();
+        }
+    }
+
+    private void executeOnConnection(StatementPlan plan, int slot, RunMetrics metrics, RunControl control) throws Exception {
+        long t0 = System.nanoTime();
+        try (Connection conn = dataSource.getConnection()) {
+            long acquired = System.nanoTime();
+            metrics.getAcquire().recordNanos(slot, acquired - t0);
+            metrics.getMeters().recordAcquire(acquired - t0);
+
+            if (plan.isBatch()) {
+                executeBatches(conn, plan, slot, metrics, control);
+                metrics.getExecute().recordNanos(slot, System.nanoTime() - acquired);
+                return;
+            }
+            executeStatement(conn, plan, slot, metrics, control, acquired);
+        }
+    }
+
+    // One operation is a transaction: txn.getSize() statements picked from the workload on one connection, then
+    // a commit timed on its own. Any failure rolls it back and counts as an abort. HikariCP restores auto-commit
+    // and the isolation level when the connection goes back to the pool.
+    private void executeTransaction(TransactionPlan txn, int slot, RunMetrics metrics, RunControl control) throws Exception {
+        Workload workload = txn.getWorkload();
+        long t0 = System.nanoTime();
+        try (Connection conn = dataSource.getConnection()) {
+            long acquired = System.nanoTime();
+            metrics.getAcquire().recordNanos(slot, acquired - t0);
+            metrics.getMeters().recordAcquire(acquired - t0);
+            conn.setTransactionIsolation(txn.getIsolation().getJdbcLevel());
+            conn.setAutoCommit(false);
+            try {
+                for (int i = 0; i < txn.getSize(); i++) {
+                    int s = workload.pick();
+                    long started = System.nanoTime();
+                    try {
+                        executeStatement(conn, workload.getPlan(s), slot, metrics, control, started);
+                    } catch (Exception ex) {
+                        metrics.recordStatementError(s);
+                        metrics.getMeters().recordError(s, ex);
+                        throw ex;
                     }
+                    long nanos = System.nanoTime() - started;
+                    metrics.recordStatement(slot, s, nanos);
+                    metrics.getMeters().recordSuccess(s, nanos);
+                }
+                long committing = System.nanoTime();
+                conn.commit();
+                metrics.getCommit().recordNanos(slot, System.nanoTime() - committing);
+            } catch (Exception ex) {
+                metrics.recordAbort(ex);
+                try {
+                    conn.rollback();
+                } catch (SQLException ignored) {
+                    // A deadlock victim is already rolled back; the original failure is what matters
+                }
+                throw ex;
+            }
+        }
+    }
+
+    // Execute and fetch phases are measured from start: the connection borrow, or the previous statement
+    @SuppressWarnings("try")
+    private static void executeStatement(Connection conn, StatementPlan plan, int slot, RunMetrics metrics,
+                                         RunControl control, long start) throws Exception {
+        if (plan.isPrepared()) {
+            applyPrepareSettings(conn, plan, control);
+            try (PreparedStatement ps = conn.prepareStatement(plan.getSql());
+                 RunControl.Executing ignored = control.executing(ps)) {
+                configureStatement(ps, plan);
+                plan.bind(ps);
+
+                if (!plan.isQuery()) {
+                    ps.executeUpdate();
+                    metrics.getExecute().recordNanos(slot, System.nanoTime() - start);
+                } else if (plan.getResultMode() == ResultMode.NONE) {
+                    ps.execute();
+                    metrics.getExecute().recordNanos(slot, System.nanoTime() - start);
                 } else {
-                    st.executeUpdate(sql);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        long firstResult = System.nanoTime();
+                        metrics.getExecute().recordNanos(slot, firstResult - start);
+                        readResult(rs, plan, metrics);
+                        metrics.getFetch().recordNanos(slot, System.nanoTime() - firstResult);
+                    }
                 }
             }
+            return;
+        }
+
+        try (Statement st = conn.createStatement();
+             RunControl.Executing ignored = control.executing(st)) {
+            configureStatement(st, plan);
+
+            String sql = plan.getSql();
+            if (!plan.isQuery()) {
+                st.executeUpdate(sql);
+                metrics.getExecute().recordNanos(slot, System.nanoTime() - start);
+            } else if (plan.getResultMode() == ResultMode.NONE) {
+                // Execute without fetching rows
+                st.execute(sql);
+                metrics.getExecute().recordNanos(slot, System.nanoTime() - start);
+            } else {
+                try (ResultSet rs = st.executeQuery(sql)) {
+                    long firstResult = System.nanoTime();
+                    metrics.getExecute().recordNanos(slot, firstResult - start);
+                    readResult(rs, plan, metrics);
+                    metrics.getFetch().recordNanos(slot, System.nanoTime() - firstResult);
+                }
+            }
+        }
+    }
+
+    // One operation is a transaction of batchesPerCommit batches (or a single auto-committed batch);
+    // each executeBatch round trip is timed on its own.
+    @SuppressWarnings("try")
+    private static void executeBatches(Connection conn, StatementPlan plan, int slot, RunMetrics metrics,
+                                       RunControl control) throws SQLException {
+        boolean transactional = plan.getBatchesPerCommit() > 0;
+        int batches = transactional ? plan.getBatchesPerCommit() : 1;
+        applyPrepareSettings(conn, plan, control);
+        if (transactional) conn.setAutoCommit(false);
+        Exception failure = null;
+        try (Statement st = plan.isPrepared() ? conn.prepareStatement(plan.getSql()) : conn.createStatement();
+             RunControl.Executing ignored = control.executing(st)) {
+            configureStatement(st, plan);
+            for (int b = 0; b < batches; b++) {
+                for (int i = 0; i < plan.getBatchSize(); i++) {
+                    if (st instanceof PreparedStatement ps) {
+                        plan.bind(ps);
+                        ps.addBatch();
+                    } else {
+                        st.addBatch(plan.getSql());
+                    }
+                }
+                long t0 = System.nanoTime();
+                int[] counts = st.executeBatch();
+                metrics.getBatch().recordNanos(slot, System.nanoTime() - t0);
+                metrics.getRows().add(affectedRows(counts));
+            }
+            if (transactional) conn.commit();
+        } catch (SQLException | RuntimeException ex) {
+            failure = ex;
+            if (transactional) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollback) {
+                    ex.addSuppressed(rollback);
+                }
+            }
+            throw ex;
+        } finally {
+            // On a broken connection the cleanup fails too; the batch failure is the one to classify and report
+            if (transactional) {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException restore) {
+                    if (failure == null) throw restore;
+                    failure.addSuppressed(restore);
+                }
+            }
+        }
+    }
+
+    private static long affectedRows(int[] counts) {
+        long rows = 0;
+        for (int c : counts) {
+            // SUCCESS_NO_INFO (e.g. bulk copy) still means the row was written
+            rows += c >= 0 ? c : (c == Statement.SUCCESS_NO_INFO ? 1 : 0);
+        }
+        return rows;
+    }
+
+    private static void configureStatement(Statement st, StatementPlan plan) throws SQLException {
+        st.setQueryTimeout(plan.getTimeoutSeconds());
+        if (plan.getFetchSize() > 0) st.setFetchSize(plan.getFetchSize());
+        if (plan.getResponseBuffering() != null && st.isWrapperFor(ISQLServerStatement.class)) {
+            st.unwrap(ISQLServerStatement.class).setResponseBuffering(plan.getResponseBuffering().getDriverValue());
         }
     }
 
-    private static void addSampleRow(List<List<String>> sampleRows, List<String> row, int maxRows) {
-        synchronized (sampleRows) {
-            if (sampleRows.size() < maxRows) {
-                sampleRows.add(row);
+    private static void readResult(ResultSet rs, StatementPlan plan, RunMetrics metrics) throws SQLException, IOException {
+        if (plan.getResultMode() == ResultMode.SCALAR) {
+            if (rs.next()) {
+                List<String> row = new ArrayList<>();
+                row.add(rs.getString(1));
+                metrics.addSampleRow(row, plan.getMaxRows());
             }
+        } else {
+            drainResult(rs, plan, metrics);
         }
     }
 
-    private static boolean isSelect(String sql) {
-        if (sql == null) return false;
-        String s = sql.trim().toLowerCase(Locale.ROOT);
-        return s.startsWith("select") || s.startsWith("with ");
+    // Reads every row to the end and counts approximate payload bytes. ROWS turns the first maxRows rows of
+    // every result into strings, as an application building objects would; rows past that cap, and all rows
+    // in DRAIN, are read with typed getters, and turned into strings only until the run has its sample rows.
+    private static void drainResult(ResultSet rs, StatementPlan plan, RunMetrics metrics) throws SQLException, IOException {
+        boolean materialize = plan.getResultMode() == ResultMode.ROWS;
+        ResultSetMetaData meta = rs.getMetaData();
+        int cols = meta.getColumnCount();
+        int[] types = new int[cols + 1];
+        for (int c = 1; c <= cols; c++) {
+            types[c] = meta.getColumnType(c);
+        }
+        DrainBuffers buffers = new DrainBuffers();
+        long rows = 0;
+        long bytes = 0;
+        while (rs.next()) {
+            if (rows < plan.getMaxRows() && (materialize || metrics.wantsSampleRows())) {
+                List<String> row = new ArrayList<>(cols);
+                for (int c = 1; c <= cols; c++) {
+                    String value = rs.getString(c);
+                    row.add(value);
+                    bytes += value == null ? 0 : value.length();
+                }
+                metrics.addSampleRow(row, plan.getMaxRows());
+            } else {
+                for (int c = 1; c <= cols; c++) {
+                    bytes += readColumn(rs, c, types[c], buffers);
+                }
+            }
+            rows++;
+        }
+        if (materialize && rows > plan.getMaxRows()) metrics.getCappedResults().increment();
+        metrics.getFetchedRows().add(rows);
+        metrics.getFetchedBytes().add(bytes);
+    }
+
+    private static final class DrainBuffers {
+        private char[] chars;
+        private byte[] bytes;
+    }
+
+    // Returns the approximate wire size of the value: fixed-width types by their SQL Server storage
+    // size, strings and binaries by length (N-types count two bytes per character).
+    private static long readColumn(ResultSet rs, int c, int type, DrainBuffers buffers) throws SQLException, IOException {
+        switch (type) {
+            case Types.BIT, Types.BOOLEAN, Types.TINYINT -> { rs.getInt(c); return 1; }
+            case Types.SMALLINT -> { rs.getShort(c); return 2; }
+            case Types.INTEGER -> { rs.getInt(c); return 4; }
+            case Types.BIGINT -> { rs.getLong(c); return 8; }
+            case Types.REAL -> { rs.getFloat(c); return 4; }
+            case Types.FLOAT, Types.DOUBLE -> { rs.getDouble(c); return 8; }
+            case Types.DECIMAL, Types.NUMERIC -> { rs.getBigDecimal(c); return 9; }
+            case Types.DATE -> { rs.getDate(c); return 3; }
+            case Types.TIME -> { rs.getTime(c); return 5; }
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> { rs.getTimestamp(c); return 8; }
+            case Types.CHAR, Types.VARCHAR -> { String v = rs.getString(c); return v == null ? 0 : v.length(); }
+            case Types.NCHAR, Types.NVARCHAR -> { String v = rs.getString(c); return v == null ? 0 : 2L * v.length(); }
+            case Types.LONGVARCHAR, Types.CLOB -> { return drainChars(rs.getCharacterStream(c), buffers); }
+            case Types.LONGNVARCHAR, Types.NCLOB, Types.SQLXML -> { return 2 * drainChars(rs.getCharacterStream(c), buffers); }
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> { return drainBytes(rs.getBinaryStream(c), buffers); }
+            default -> { rs.getObject(c); return 8; }
+        }
+    }
+
+    private static long drainChars(Reader reader, DrainBuffers buffers) throws IOException {
+        if (reader == null) return 0;
+        if (buffers.chars == null) buffers.chars = new char[8192];
+        long total = 0;
+        try (reader) {
+            for (int n; (n = reader.read(buffers.chars)) > 0; ) total += n;
+        }
+        return total;
+    }
+
+    private static long drainBytes(InputStream in, DrainBuffers buffers) throws IOException {
+        if (in == null) return 0;
+        if (buffers.bytes == null) buffers.bytes = new byte[8192];
+        long total = 0;
+        try (in) {
+            for (int n; (n = in.read(buffers.bytes)) > 0; ) total += n;
+        }
+        return total;
+    }
+
+    // The settings are the same for every statement of a run, so they are applied once per physical connection
+    // the run borrows. Workers do not pin connections: the prepareStatement of each checkout is served from the
+    // driver's per-connection statement pool, whose size is one of these settings.
+    private static void applyPrepareSettings(Connection conn, StatementPlan plan, RunControl control) throws SQLException {
+        if (!conn.isWrapperFor(ISQLServerConnection.class)) return;
+        ISQLServerConnection sql = conn.unwrap(ISQLServerConnection.class);
+        if (control.isConfigured(sql)) return;
+        PrepareMethod method = plan.getPrepareMethod();
+        if (!method.getDriverValue().equals(sql.getPrepareMethod())) {
+            sql.setPrepareMethod(method.getDriverValue());
+        }
+        if (sql.getEnablePrepareOnFirstPreparedStatementCall() != method.isPrepareOnFirstCall()) {
+            sql.setEnablePrepareOnFirstPreparedStatementCall(method.isPrepareOnFirstCall());
+        }
+        int cacheSize = plan.getStatementCacheSize();
+        if (sql.getStatementPoolingCacheSize() != cacheSize) {
+            sql.setStatementPoolingCacheSize(cacheSize);
+        }
+        if (sql.getDisableStatementPooling() != (cacheSize == 0)) {
+            sql.setDisableStatementPooling(cacheSize == 0);
+        }
+        if (sql.getUseBulkCopyForBatchInsert() != plan.isBulkCopy()) {
+            sql.setUseBulkCopyForBatchInsert(plan.isBulkCopy());
+        }
+        control.markConfigured(sql);
     }
 
     public String evictIdleConnections() {
@@ -0,0 +1,70 @@
+package com.example.sqlstresstool.service;
+
+import java.util.Locale;
+
+public class StageResult {
+    private String name;
+    private String load;
+    private boolean warmup;
+    private long durationMs;
+    private long operations;
+    private double throughput;
+    private double p50Ms;
+    private double p99Ms;
+    private long errors;
+    private double errorRate;
+    private Boolean passed;
+
+    static StageResult of(LoadStage stage, int step, LatencyHistogram histogram, long errors, long durationMs) {
+        StageResult r = new StageResult();
+        String kind = stage.getKind().name().toLowerCase(Locale.ROOT);
+        r.name = stage.getStepCount() > 1 ? kind + " " + (step + 1) + "/" + stage.getStepCount() : kind;
+        if (stage.isLinearRamp()) {
+            r.load = stage.rampStart().describe() + " → " + stage.rampEnd().describe();
+        } else {
+            r.load = stage.loadAt(step).describe();
+        }
+        r.warmup = stage.isWarmup();
+        r.durationMs = durationMs;
+        r.operations = histogram.getTotalCount() + errors;
+        r.throughput = durationMs > 0 ? r.operations * 1000.0 / durationMs : 0;
+        r.p50Ms = histogram.getValueAtPercentile(50) / 1000.0;
+        r.p99Ms = histogram.getValueAtPercentile(99) / 1000.0;
+        r.errors = errors;
+        r.errorRate = r.operations == 0 ? 0 : (double) errors / r.operations;
+        return r;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getLoad() { return load; }
+    public void setLoad(String load) { this.load = load; }
+
+    public boolean isWarmup() { return warmup; }
+    public void setWarmup(boolean warmup) { this.warmup = warmup; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public long getOperations() { return operations; }
+    public void setOperations(long operations) { this.operations = operations; }
+
+    public double getThroughput() { return throughput; }
+    public void setThroughput(double throughput) { this.throughput = throughput; }
+
+    public double getP50Ms() { return p50Ms; }
+    public void setP50Ms(double p50Ms) { this.p50Ms = p50Ms; }
+
+    public double getP99Ms() { return p99Ms; }
+    public void setP99Ms(double p99Ms) { this.p99Ms = p99Ms; }
+
+    public long getErrors() { return errors; }
+    public void setErrors(long errors) { this.errors = errors; }
+
+    public double getErrorRate() { return errorRate; }
+    public void setErrorRate(double errorRate) { this.errorRate = errorRate; }
+
+    public Boolean getPassed() { return passed; }
+    public void setPassed(Boolean passed) { this.passed = passed; }
+}
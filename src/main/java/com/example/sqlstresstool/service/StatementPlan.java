@@ -0,0 +1,116 @@
+package com.example.sqlstresstool.service;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A statement prepared for execution by a run: everything derived from the request
+ * (query detection, parameter generators) is worked out once, not per iteration.
+ */
+public class StatementPlan {
+
+    private final String sql;
+    private final boolean query;
+    private final ResultMode resultMode;
+    private final int maxRows;
+    private final int timeoutSeconds;
+    private final StatementMode statementMode;
+    private final ParameterGenerator[] parameters;
+    private final PrepareMethod prepareMethod;
+    private final int statementCacheSize;
+    private final int batchSize;
+    private final int batchesPerCommit;
+    private final boolean bulkCopy;
+    private final int fetchSize;
+    private final ResponseBuffering responseBuffering;
+
+    public StatementPlan(String sql, ResultMode resultMode, int maxRows, int timeoutSeconds,
+                         StatementMode statementMode, List<ParameterGenerator> parameters,
+                         PrepareMethod prepareMethod, int statementCacheSize,
+                         int batchSize, int batchesPerCommit, boolean bulkCopy,
+                         int fetchSize, ResponseBuffering responseBuffering) {
+        this.sql = sql;
+        this.query = isSelect(sql);
+        this.resultMode = resultMode == null ? ResultMode.NONE : resultMode;
+        this.maxRows = maxRows;
+        this.timeoutSeconds = timeoutSeconds;
+        this.statementMode = statementMode == null ? StatementMode.LITERAL : statementMode;
+        this.parameters = parameters.toArray(new ParameterGenerator[0]);
+        this.prepareMethod = prepareMethod == null ? PrepareMethod.EXECUTESQL_FIRST : prepareMethod;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.batchSize = Math.max(0, batchSize);
+        this.batchesPerCommit = Math.max(0, batchesPerCommit);
+        this.bulkCopy = bulkCopy;
+        this.fetchSize = Math.max(0, fetchSize);
+        this.responseBuffering = responseBuffering;
+
+        if (this.batchSize > 0 && query) {
+            throw new IllegalArgumentException("Batch mode applies to INSERT/UPDATE/DELETE statements, not queries");
+        }
+
+        if (this.statementMode == StatementMode.PREPARED) {
+            int placeholders = countPlaceholders(sql);
+            if (placeholders != this.parameters.length) {
+                throw new IllegalArgumentException("Statement has " + placeholders + " '?' placeholders but "
+                        + this.parameters.length + " parameter generators were configured");
+            }
+        }
+    }
+
+    public static StatementPlan from(StressRequest req, Path csvDirectory) {
+        return new StatementPlan(req.getSqlText(), req.getResultMode(), req.getMaxRows(),
+                Math.max(1, req.getTimeoutSeconds()), req.getStatementMode(),
+                ParameterGenerators.parse(req.getParameters(), csvDirectory), req.getPrepareMethod(), req.getStatementCacheSize(),
+                req.getBatchSize(), req.getBatchesPerCommit(), req.isBulkCopy(),
+                req.getFetchSize(), req.getResponseBuffering());
+    }
+
+    public String getSql() { return sql; }
+    public boolean isQuery() { return query; }
+    public ResultMode getResultMode() { return resultMode; }
+    public int getMaxRows() { return maxRows; }
+    public int getTimeoutSeconds() { return timeoutSeconds; }
+    public StatementMode getStatementMode() { return statementMode; }
+    public PrepareMethod getPrepareMethod() { return prepareMethod; }
+    public int getStatementCacheSize() { return statementCacheSize; }
+    public int getBatchSize() { return batchSize; }
+    public int getBatchesPerCommit() { return batchesPerCommit; }
+    public boolean isBulkCopy() { return bulkCopy; }
+    public int getFetchSize() { return fetchSize; }
+    public ResponseBuffering getResponseBuffering() { return responseBuffering; }
+
+    public boolean isBatch() {
+        return batchSize > 0;
+    }
+
+    public boolean isPrepared() {
+        return statementMode == StatementMode.PREPARED;
+    }
+
+    public void bind(PreparedStatement ps) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i].bind(ps, i + 1);
+        }
+    }
+
+    static boolean isSelect(String sql) {
+        if (sql == null) return false;
+        String s = sql.trim().toLowerCase(Locale.ROOT);
+        return s.startsWith("select") || s.startsWith("with ");
+    }
+
+    static int countPlaceholders(String sql) {
+        if (sql == null) return 0;
+        int count = 0;
+        boolean inString = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') inString = !inString;
+            else if (c == '?' && !inString) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.sqlstresstool.service;
+
+/** Per-statement slice of a workload mix run. */
+public class StatementStats {
+    private String name;
+    private double weightPercent;
+    private double sharePercent;
+    private long count;
+    private long errors;
+    private double avgMs;
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+    private double maxMs;
+    private LatencyHistogram histogram;
+
+    static StatementStats of(String name, double weightPercent, LatencyHistogram histogram, long errors, long totalOps) {
+        StatementStats s = new StatementStats();
+        s.name = name;
+        s.weightPercent = weightPercent;
+        s.count = histogram.getTotalCount();
+        s.errors = errors;
+        s.sharePercent = totalOps > 0 ? 100.0 * (s.count + errors) / totalOps : 0;
+        s.avgMs = histogram.getMeanMicros() / 1000.0;
+        s.p50Ms = histogram.getValueAtPercentile(50) / 1000.0;
+        s.p95Ms = histogram.getValueAtPercentile(95) / 1000.0;
+        s.p99Ms = histogram.getValueAtPercentile(99) / 1000.0;
+        s.maxMs = histogram.getMaxMicros() / 1000.0;
+        s.histogram = histogram;
+        return s;
+    }
+
+    public String getName() { return name; }
+    public double getWeightPercent() { return weightPercent; }
+    public double getSharePercent() { return sharePercent; }
+    public long getCount() { return count; }
+    public long getErrors() { return errors; }
+    public double getAvgMs() { return avgMs; }
+    public double getP50Ms() { return p50Ms; }
+    public double getP95Ms() { return p95Ms; }
+    public double getP99Ms() { return p99Ms; }
+    public double getMaxMs() { return maxMs; }
+    public LatencyHistogram getHistogram() { return histogram; }
+}
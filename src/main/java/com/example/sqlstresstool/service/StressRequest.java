@@ -1,13 +1,45 @@
 package com.example.sqlstresstool.service;
 
+import org.springframework.beans.BeanUtils;
+
 public class StressRequest {
     private String sqlText;
-    private int iterations;
+    private long iterations;
     private int concurrency;
     private int delayMs;
     private int timeoutSeconds;
     private ResultMode resultMode;
     private int maxRows;
+    private LoadMode loadMode;
+    private double targetRate;
+    private int durationSeconds;
+    private EngineType engine;
+    private StatementMode statementMode;
+    private String parameters;
+    private PrepareMethod prepareMethod;
+    private int statementCacheSize;
+    private String profile;
+    private int batchSize;
+    private int batchesPerCommit;
+    private boolean bulkCopy;
+    private String workload;
+    private int fetchSize;
+    private ResponseBuffering responseBuffering;
+    private boolean distributed;
+    private int retries;
+    private int retryBackoffMs;
+    private String sweepPoolSizes;
+    private String sweepConcurrency;
+    private String sweepConnectionTimeouts;
+    private String targets;
+    private boolean targetsConcurrently;
+    private int transactionSize;
+    private IsolationLevel isolationLevel;
+    private int deadlockRetries;
+    private boolean trace;
+    private DisruptionType disruption;
+    private int disruptionAtSeconds;
+    private int outageSeconds;
 
     public static StressRequest defaultRequest() {
         StressRequest r = new StressRequest();
@@ -18,14 +50,41 @@ public class StressRequest {
         r.timeoutSeconds = 30;
         r.resultMode = ResultMode.SCALAR;
         r.maxRows = 10;
+        r.loadMode = LoadMode.CLOSED_LOOP;
+        r.targetRate = 100;
+        r.durationSeconds = 30;
+        r.engine = EngineType.PLATFORM;
+        r.statementMode = StatementMode.LITERAL;
+        r.parameters = "";
+        r.prepareMethod = PrepareMethod.EXECUTESQL_FIRST;
+        r.statementCacheSize = 64;
+        r.profile = "";
+        r.workload = "";
+        r.responseBuffering = ResponseBuffering.ADAPTIVE;
+        r.retryBackoffMs = 100;
+        r.sweepPoolSizes = "";
+        r.sweepConcurrency = "";
+        r.sweepConnectionTimeouts = "";
+        r.targets = "";
+        r.targetsConcurrently = true;
+        r.isolationLevel = IsolationLevel.READ_COMMITTED;
+        r.disruption = DisruptionType.NONE;
+        r.disruptionAtSeconds = 10;
+        r.outageSeconds = 5;
+        return r;
+    }
+
+    public StressRequest copy() {
+        StressRequest r = new StressRequest();
+        BeanUtils.copyProperties(this, r);
         return r;
     }
 
     public String getSqlText() { return sqlText; }
     public void setSqlText(String sqlText) { this.sqlText = sqlText; }
 
-    public int getIterations() { return iterations; }
-    public void setIterations(int iterations) { this.iterations = iterations; }
+    public long getIterations() { return iterations; }
+    public void setIterations(long iterations) { this.iterations = iterations; }
 
     public int getConcurrency() { return concurrency; }
     public void setConcurrency(int concurrency) { this.concurrency = concurrency; }
@@ -41,4 +100,94 @@ public class StressRequest {
 
     public int getMaxRows() { return maxRows; }
     public void setMaxRows(int maxRows) { this.maxRows = maxRows; }
+
+    public LoadMode getLoadMode() { return loadMode; }
+    public void setLoadMode(LoadMode loadMode) { this.loadMode = loadMode; }
+
+    public double getTargetRate() { return targetRate; }
+    public void setTargetRate(double targetRate) { this.targetRate = targetRate; }
+
+    public int getDurationSeconds() { return durationSeconds; }
+    public void setDurationSeconds(int durationSeconds) { this.durationSeconds = durationSeconds; }
+
+    public EngineType getEngine() { return engine; }
+    public void setEngine(EngineType engine) { this.engine = engine; }
+
+    public StatementMode getStatementMode() { return statementMode; }
+    public void setStatementMode(StatementMode statementMode) { this.statementMode = statementMode; }
+
+    public String getParameters() { return parameters; }
+    public void setParameters(String parameters) { this.parameters = parameters; }
+
+    public PrepareMethod getPrepareMethod() { return prepareMethod; }
+    public void setPrepareMethod(PrepareMethod prepareMethod) { this.prepareMethod = prepareMethod; }
+
+    public int getStatementCacheSize() { return statementCacheSize; }
+    public void setStatementCacheSize(int statementCacheSize) { this.statementCacheSize = statementCacheSize; }
+
+    public String getProfile() { return profile; }
+    public void setProfile(String profile) { this.profile = profile; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public int getBatchesPerCommit() { return batchesPerCommit; }
+    public void setBatchesPerCommit(int batchesPerCommit) { this.batchesPerCommit = batchesPerCommit; }
+
+    public boolean isBulkCopy() { return bulkCopy; }
+    public void setBulkCopy(boolean bulkCopy) { this.bulkCopy = bulkCopy; }
+
+    public String getWorkload() { return workload; }
+    public void setWorkload(String workload) { this.workload = workload; }
+
+    public int getFetchSize() { return fetchSize; }
+    public void setFetchSize(int fetchSize) { this.fetchSize = fetchSize; }
+
+    public ResponseBuffering getResponseBuffering() { return responseBuffering; }
+    public void setResponseBuffering(ResponseBuffering responseBuffering) { this.responseBuffering = responseBuffering; }
+
+    public boolean isDistributed() { return distributed; }
+    public void setDistributed(boolean distributed) { this.distributed = distributed; }
+
+    public int getRetries() { return retries; }
+    public void setRetries(int retries) { this.retries = retries; }
+
+    public int getRetryBackoffMs() { return retryBackoffMs; }
+    public void setRetryBackoffMs(int retryBackoffMs) { this.retryBackoffMs = retryBackoffMs; }
+
+    public String getSweepPoolSizes() { return sweepPoolSizes; }
+    public void setSweepPoolSizes(String sweepPoolSizes) { this.sweepPoolSizes = sweepPoolSizes; }
+
+    public String getSweepConcurrency() { return sweepConcurrency; }
+    public void setSweepConcurrency(String sweepConcurrency) { this.sweepConcurrency = sweepConcurrency; }
+
+    public String getSweepConnectionTimeouts() { return sweepConnectionTimeouts; }
+    public void setSweepConnectionTimeouts(String sweepConnectionTimeouts) { this.sweepConnectionTimeouts = sweepConnectionTimeouts; }
+
+    public String getTargets() { return targets; }
+    public void setTargets(String targets) { this.targets = targets; }
+
+    public boolean isTargetsConcurrently() { return targetsConcurrently; }
+    public void setTargetsConcurrently(boolean targetsConcurrently) { this.targetsConcurrently = targetsConcurrently; }
+
+    public int getTransactionSize() { return transactionSize; }
+    public void setTransactionSize(int transactionSize) { this.transactionSize = transactionSize; }
+
+    public IsolationLevel getIsolationLevel() { return isolationLevel; }
+    public void setIsolationLevel(IsolationLevel isolationLevel) { this.isolationLevel = isolationLevel; }
+
+    public int getDeadlockRetries() { return deadlockRetries; }
+    public void setDeadlockRetries(int deadlockRetries) { this.deadlockRetries = deadlockRetries; }
+
+    public boolean isTrace() { return trace; }
+    public void setTrace(boolean trace) { this.trace = trace; }
+
+    public DisruptionType getDisruption() { return disruption; }
+    public void setDisruption(DisruptionType disruption) { this.disruption = disruption; }
+
+    public int getDisruptionAtSeconds() { return disruptionAtSeconds; }
+    public void setDisruptionAtSeconds(int disruptionAtSeconds) { this.disruptionAtSeconds = disruptionAtSeconds; }
+
+    public int getOutageSeconds() { return outageSeconds; }
+    public void setOutageSeconds(int outageSeconds) { this.outageSeconds = outageSeconds; }
 }
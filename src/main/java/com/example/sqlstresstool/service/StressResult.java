@@ -1,24 +1,80 @@
 package com.example.sqlstresstool.service;
 
 import java.util.List;
+import java.util.Map;
 
 public class StressResult {
-    private int totalIterations;
+    private long totalIterations;
     private int concurrency;
     private long durationMs;
     private String startTime;
     private String finishTime;
-    private int successCount;
-    private int errorCount;
-    private long avgMs;
-    private long p50Ms;
-    private long p95Ms;
-    private long p99Ms;
+    private long successCount;
+    private long errorCount;
+    private double avgMs;
+    private double minMs;
+    private double maxMs;
+    private double stdDevMs;
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+    private Map<String, Double> percentiles;
+    private LatencyHistogram histogram;
+    private LoadMode loadMode;
+    private double targetRate;
+    private double achievedRate;
+    private long lateCount;
+    private double maxLagMs;
+    private Map<String, Double> servicePercentiles;
+    private LatencyHistogram serviceHistogram;
+    private EngineType engine;
+    private ClientResourceUsage resources;
+    private boolean cancelled;
+    private List<StageResult> stages;
+    private Double maxSustainableThroughput;
+    private String kneeLoad;
+    private List<PhaseLatency> phases;
+    private PoolUsage pool;
+    private List<StatementStats> statements;
+    private List<AgentResult> agents;
+    private long rowsFetched;
+    private double fetchRowsPerSec;
+    private double fetchBytesPerSec;
+    private long cappedResults;
+    private int batchSize;
+    private int batchesPerCommit;
+    private long rowsWritten;
+    private double rowsPerSec;
+    private double perRowAvgMs;
+    private Map<String, Double> batchPercentiles;
+    private List<ErrorCount> errorCodes;
+    private long retries;
+    private Double sustainableConcurrency;
+    private Double sustainableThroughput;
+    private List<Integer> concurrencyLimits;
+    private List<SweepCell> sweep;
+    private Integer recommendedPoolSize;
+    private Integer recommendedConcurrency;
+    private String recommendation;
+    private List<TargetResult> targets;
+    private int transactionSize;
+    private IsolationLevel isolationLevel;
+    private PhaseLatency commit;
+    private long aborts;
+    private long deadlocks;
+    private double transactionsPerSec;
+    private double statementsPerSec;
+    private String isolationNote;
+    private List<String> traceFiles;
+    private long traceRecords;
+    private long traceDropped;
+    private String traceError;
+    private DisruptionReport disruption;
     private List<String> errorSamples;
     private List<List<String>> sampleRows;
 
-    public int getTotalIterations() { return totalIterations; }
-    public void setTotalIterations(int totalIterations) { this.totalIterations = totalIterations; }
+    public long getTotalIterations() { return totalIterations; }
+    public void setTotalIterations(long totalIterations) { this.totalIterations = totalIterations; }
 
     public int getConcurrency() { return concurrency; }
     public void setConcurrency(int concurrency) { this.concurrency = concurrency; }
@@ -32,27 +88,197 @@ public class StressResult {
     public String getFinishTime() { return finishTime; }
     public void setFinishTime(String finishTime) { this.finishTime = finishTime; }
 
-    public int getSuccessCount() { return successCount; }
-    public void setSuccessCount(int successCount) { this.successCount = successCount; }
+    public long getSuccessCount() { return successCount; }
+    public void setSuccessCount(long successCount) { this.successCount = successCount; }
 
-    public int getErrorCount() { return errorCount; }
-    public void setErrorCount(int errorCount) { this.errorCount = errorCount; }
+    public long getErrorCount() { return errorCount; }
+    public void setErrorCount(long errorCount) { this.errorCount = errorCount; }
 
-    public long getAvgMs() { return avgMs; }
-    public void setAvgMs(long avgMs) { this.avgMs = avgMs; }
+    public double getAvgMs() { return avgMs; }
+    public void setAvgMs(double avgMs) { this.avgMs = avgMs; }
 
-    public long getP50Ms() { return p50Ms; }
-    public void setP50Ms(long p50Ms) { this.p50Ms = p50Ms; }
+    public double getMinMs() { return minMs; }
+    public void setMinMs(double minMs) { this.minMs = minMs; }
 
-    public long getP95Ms() { return p95Ms; }
-    public void setP95Ms(long p95Ms) { this.p95Ms = p95Ms; }
+    public double getMaxMs() { return maxMs; }
+    public void setMaxMs(double maxMs) { this.maxMs = maxMs; }
 
-    public long getP99Ms() { return p99Ms; }
-    public void setP99Ms(long p99Ms) { this.p99Ms = p99Ms; }
+    public double getStdDevMs() { return stdDevMs; }
+    public void setStdDevMs(double stdDevMs) { this.stdDevMs = stdDevMs; }
+
+    public double getP50Ms() { return p50Ms; }
+    public void setP50Ms(double p50Ms) { this.p50Ms = p50Ms; }
+
+    public double getP95Ms() { return p95Ms; }
+    public void setP95Ms(double p95Ms) { this.p95Ms = p95Ms; }
+
+    public double getP99Ms() { return p99Ms; }
+    public void setP99Ms(double p99Ms) { this.p99Ms = p99Ms; }
+
+    public Map<String, Double> getPercentiles() { return percentiles; }
+    public void setPercentiles(Map<String, Double> percentiles) { this.percentiles = percentiles; }
+
+    public LatencyHistogram getHistogram() { return histogram; }
+    public void setHistogram(LatencyHistogram histogram) { this.histogram = histogram; }
+
+    public LoadMode getLoadMode() { return loadMode; }
+    public void setLoadMode(LoadMode loadMode) { this.loadMode = loadMode; }
+
+    public double getTargetRate() { return targetRate; }
+    public void setTargetRate(double targetRate) { this.targetRate = targetRate; }
+
+    public double getAchievedRate() { return achievedRate; }
+    public void setAchievedRate(double achievedRate) { this.achievedRate = achievedRate; }
+
+    public long getLateCount() { return lateCount; }
+    public void setLateCount(long lateCount) { this.lateCount = lateCount; }
+
+    public double getMaxLagMs() { return maxLagMs; }
+    public void setMaxLagMs(double maxLagMs) { this.maxLagMs = maxLagMs; }
+
+    public Map<String, Double> getServicePercentiles() { return servicePercentiles; }
+    public void setServicePercentiles(Map<String, Double> servicePercentiles) { this.servicePercentiles = servicePercentiles; }
+
+    public LatencyHistogram getServiceHistogram() { return serviceHistogram; }
+    public void setServiceHistogram(LatencyHistogram serviceHistogram) { this.serviceHistogram = serviceHistogram; }
+
+    public EngineType getEngine() { return engine; }
+    public void setEngine(EngineType engine) { this.engine = engine; }
+
+    public ClientResourceUsage getResources() { return resources; }
+    public void setResources(ClientResourceUsage resources) { this.resources = resources; }
+
+    public boolean isCancelled() { return cancelled; }
+    public void setCancelled(boolean cancelled) { this.cancelled = cancelled; }
+
+    public List<StageResult> getStages() { return stages; }
+    public void setStages(List<StageResult> stages) { this.stages = stages; }
+
+    public Double getMaxSustainableThroughput() { return maxSustainableThroughput; }
+    public void setMaxSustainableThroughput(Double maxSustainableThroughput) { this.maxSustainableThroughput = maxSustainableThroughput; }
+
+    public String getKneeLoad() { return kneeLoad; }
+    public void setKneeLoad(String kneeLoad) { this.kneeLoad = kneeLoad; }
+
+    public List<PhaseLatency> getPhases() { return phases; }
+    public void setPhases(List<PhaseLatency> phases) { this.phases = phases; }
+
+    public PoolUsage getPool() { return pool; }
+    public void setPool(PoolUsage pool) { this.pool = pool; }
+
+    public List<AgentResult> getAgents() { return agents; }
+    public void setAgents(List<AgentResult> agents) { this.agents = agents; }
+
+    public List<StatementStats> getStatements() { return statements; }
+    public void setStatements(List<StatementStats> statements) { this.statements = statements; }
+
+    public long getRowsFetched() { return rowsFetched; }
+    public void setRowsFetched(long rowsFetched) { this.rowsFetched = rowsFetched; }
+
+    public double getFetchRowsPerSec() { return fetchRowsPerSec; }
+    public void setFetchRowsPerSec(double fetchRowsPerSec) { this.fetchRowsPerSec = fetchRowsPerSec; }
+
+    public double getFetchBytesPerSec() { return fetchBytesPerSec; }
+    public void setFetchBytesPerSec(double fetchBytesPerSec) { this.fetchBytesPerSec = fetchBytesPerSec; }
+
+    public long getCappedResults() { return cappedResults; }
+    public void setCappedResults(long cappedResults) { this.cappedResults = cappedResults; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public int getBatchesPerCommit() { return batchesPerCommit; }
+    public void setBatchesPerCommit(int batchesPerCommit) { this.batchesPerCommit = batchesPerCommit; }
+
+    public long getRowsWritten() { return rowsWritten; }
+    public void setRowsWritten(long rowsWritten) { this.rowsWritten = rowsWritten; }
+
+    public double getRowsPerSec() { return rowsPerSec; }
+    public void setRowsPerSec(double rowsPerSec) { this.rowsPerSec = rowsPerSec; }
+
+    public double getPerRowAvgMs() { return perRowAvgMs; }
+    public void setPerRowAvgMs(double perRowAvgMs) { this.perRowAvgMs = perRowAvgMs; }
+
+    public Map<String, Double> getBatchPercentiles() { return batchPercentiles; }
+    public void setBatchPercentiles(Map<String, Double> batchPercentiles) { this.batchPercentiles = batchPercentiles; }
+
+    public double percentileMs(double percentile) {
+        return histogram == null ? 0 : histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public List<ErrorCount> getErrorCodes() { return errorCodes; }
+    public void setErrorCodes(List<ErrorCount> errorCodes) { this.errorCodes = errorCodes; }
+
+    public long getRetries() { return retries; }
+    public void setRetries(long retries) { this.retries = retries; }
+
+    public Double getSustainableConcurrency() { return sustainableConcurrency; }
+    public void setSustainableConcurrency(Double sustainableConcurrency) { this.sustainableConcurrency = sustainableConcurrency; }
+
+    public Double getSustainableThroughput() { return sustainableThroughput; }
+    public void setSustainableThroughput(Double sustainableThroughput) { this.sustainableThroughput = sustainableThroughput; }
+
+    /** Adaptive runs: the concurrency limit at the end of each second. */
+    public List<Integer> getConcurrencyLimits() { return concurrencyLimits; }
+    public void setConcurrencyLimits(List<Integer> concurrencyLimits) { this.concurrencyLimits = concurrencyLimits; }
 
     public List<String> getErrorSamples() { return errorSamples; }
     public void setErrorSamples(List<String> errorSamples) { this.errorSamples = errorSamples; }
 
     public List<List<String>> getSampleRows() { return sampleRows; }
     public void setSampleRows(List<List<String>> sampleRows) { this.sampleRows = sampleRows; }
+
+    public List<SweepCell> getSweep() { return sweep; }
+    public void setSweep(List<SweepCell> sweep) { this.sweep = sweep; }
+
+    public Integer getRecommendedPoolSize() { return recommendedPoolSize; }
+    public void setRecommendedPoolSize(Integer recommendedPoolSize) { this.recommendedPoolSize = recommendedPoolSize; }
+
+    public Integer getRecommendedConcurrency() { return recommendedConcurrency; }
+    public void setRecommendedConcurrency(Integer recommendedConcurrency) { this.recommendedConcurrency = recommendedConcurrency; }
+
+    public String getRecommendation() { return recommendation; }
+    public void setRecommendation(String recommendation) { this.recommendation = recommendation; }
+
+    public List<TargetResult> getTargets() { return targets; }
+    public void setTargets(List<TargetResult> targets) { this.targets = targets; }
+
+    public int getTransactionSize() { return transactionSize; }
+    public void setTransactionSize(int transactionSize) { this.transactionSize = transactionSize; }
+
+    public IsolationLevel getIsolationLevel() { return isolationLevel; }
+    public void setIsolationLevel(IsolationLevel isolationLevel) { this.isolationLevel = isolationLevel; }
+
+    public PhaseLatency getCommit() { return commit; }
+    public void setCommit(PhaseLatency commit) { this.commit = commit; }
+
+    public long getAborts() { return aborts; }
+    public void setAborts(long aborts) { this.aborts = aborts; }
+
+    public long getDeadlocks() { return deadlocks; }
+    public void setDeadlocks(long deadlocks) { this.deadlocks = deadlocks; }
+
+    public double getTransactionsPerSec() { return transactionsPerSec; }
+    public void setTransactionsPerSec(double transactionsPerSec) { this.transactionsPerSec = transactionsPerSec; }
+
+    public double getStatementsPerSec() { return statementsPerSec; }
+    public void setStatementsPerSec(double statementsPerSec) { this.statementsPerSec = statementsPerSec; }
+
+    public String getIsolationNote() { return isolationNote; }
+    public void setIsolationNote(String isolationNote) { this.isolationNote = isolationNote; }
+
+    public List<String> getTraceFiles() { return traceFiles; }
+    public void setTraceFiles(List<String> traceFiles) { this.traceFiles = traceFiles; }
+
+    public long getTraceRecords() { return traceRecords; }
+    public void setTraceRecords(long traceRecords) { this.traceRecords = traceRecords; }
+
+    public long getTraceDropped() { return traceDropped; }
+    public void setTraceDropped(long traceDropped) { this.traceDropped = traceDropped; }
+
+    public String getTraceError() { return traceError; }
+    public void setTraceError(String traceError) { this.traceError = traceError; }
+
+    public DisruptionReport getDisruption() { return disruption; }
+    public void setDisruption(DisruptionReport disruption) { this.disruption = disruption; }
 }
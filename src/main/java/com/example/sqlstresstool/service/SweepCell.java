@@ -0,0 +1,80 @@
+package com.example.sqlstresstool.service;
+
+/** One cell of a pool sweep: the request run at one pool size, concurrency and connection timeout. */
+public class SweepCell {
+    private int poolSize;
+    private int concurrency;
+    private Long connectionTimeoutMs;
+    private long durationMs;
+    private long operations;
+    private double throughput;
+    private double p50Ms;
+    private double p99Ms;
+    private double acquireAvgMs;
+    private double acquireP99Ms;
+    private double avgAwaiting;
+    private long errors;
+    private double errorRate;
+    private boolean recommended;
+
+    static SweepCell of(PoolSweep.Step step, StressResult r) {
+        SweepCell c = new SweepCell();
+        c.poolSize = step.poolSize();
+        c.concurrency = step.concurrency();
+        c.connectionTimeoutMs = step.connectionTimeoutMs();
+        c.durationMs = r.getDurationMs();
+        c.operations = r.getSuccessCount() + r.getErrorCount();
+        c.throughput = r.getDurationMs() > 0 ? c.operations * 1000.0 / r.getDurationMs() : 0;
+        c.p50Ms = r.getP50Ms();
+        c.p99Ms = r.getP99Ms();
+        PhaseLatency acquire = r.getPhases().get(0);
+        c.acquireAvgMs = acquire.getAvgMs();
+        c.acquireP99Ms = acquire.getP99Ms();
+        c.avgAwaiting = r.getPool() == null ? 0 : r.getPool().getAvgAwaiting();
+        c.errors = r.getErrorCount();
+        c.errorRate = c.operations == 0 ? 0 : (double) c.errors / c.operations;
+        return c;
+    }
+
+    public int getPoolSize() { return poolSize; }
+    public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+
+    public int getConcurrency() { return concurrency; }
+    public void setConcurrency(int concurrency) { this.concurrency = concurrency; }
+
+    public Long getConnectionTimeoutMs() { return connectionTimeoutMs; }
+    public void setConnectionTimeoutMs(Long connectionTimeoutMs) { this.connectionTimeoutMs = connectionTimeoutMs; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public long getOperations() { return operations; }
+    public void setOperations(long operations) { this.operations = operations; }
+
+    public double getThroughput() { return throughput; }
+    public void setThroughput(double throughput) { this.throughput = throughput; }
+
+    public double getP50Ms() { return p50Ms; }
+    public void setP50Ms(double p50Ms) { this.p50Ms = p50Ms; }
+
+    public double getP99Ms() { return p99Ms; }
+    public void setP99Ms(double p99Ms) { this.p99Ms = p99Ms; }
+
+    public double getAcquireAvgMs() { return acquireAvgMs; }
+    public void setAcquireAvgMs(double acquireAvgMs) { this.acquireAvgMs = acquireAvgMs; }
+
+    public double getAcquireP99Ms() { return acquireP99Ms; }
+    public void setAcquireP99Ms(double acquireP99Ms) { this.acquireP99Ms = acquireP99Ms; }
+
+    public double getAvgAwaiting() { return avgAwaiting; }
+    public void setAvgAwaiting(double avgAwaiting) { this.avgAwaiting = avgAwaiting; }
+
+    public long getErrors() { return errors; }
+    public void setErrors(long errors) { this.errors = errors; }
+
+    public double getErrorRate() { return errorRate; }
+    public void setErrorRate(double errorRate) { this.errorRate = errorRate; }
+
+    public boolean isRecommended() { return recommended; }
+    public void setRecommended(boolean recommended) { this.recommended = recommended; }
+}
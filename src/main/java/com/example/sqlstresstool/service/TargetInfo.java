@@ -0,0 +1,33 @@
+package com.example.sqlstresstool.service;
+
+/** A named target as listed in the UI: its URL (password masked) and the state of its pool. */
+public class TargetInfo {
+    private String name;
+    private String url;
+    private boolean primary;
+    private boolean poolOpen;
+    private int activeConnections;
+    private int idleConnections;
+    private int maximumPoolSize;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+
+    public boolean isPrimary() { return primary; }
+    public void setPrimary(boolean primary) { this.primary = primary; }
+
+    public boolean isPoolOpen() { return poolOpen; }
+    public void setPoolOpen(boolean poolOpen) { this.poolOpen = poolOpen; }
+
+    public int getActiveConnections() { return activeConnections; }
+    public void setActiveConnections(int activeConnections) { this.activeConnections = activeConnections; }
+
+    public int getIdleConnections() { return idleConnections; }
+    public void setIdleConnections(int idleConnections) { this.idleConnections = idleConnections; }
+
+    public int getMaximumPoolSize() { return maximumPoolSize; }
+    public void setMaximumPoolSize(int maximumPoolSize) { this.maximumPoolSize = maximumPoolSize; }
+}
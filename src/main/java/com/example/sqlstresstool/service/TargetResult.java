@@ -0,0 +1,98 @@
+package com.example.sqlstresstool.service;
+
+/**
+ * Per-target row of a multi-target run. The ratio and deltas compare the target with the first target
+ * of the run that completed (the baseline), so a replica's throughput gain and latency penalty read directly.
+ */
+public class TargetResult {
+    private String name;
+    private String status;
+    private long successCount;
+    private long errorCount;
+    private long durationMs;
+    private double achievedRate;
+    private double avgMs;
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+    private Double throughputRatio;
+    private Double p50DeltaMs;
+    private Double p99DeltaMs;
+    private String message;
+    private StressResult result;
+
+    static TargetResult of(String name, StressResult r) {
+        TargetResult t = new TargetResult();
+        t.name = name;
+        t.status = (r.isCancelled() ? RunJobStatus.CANCELLED : RunJobStatus.COMPLETED).name();
+        t.successCount = r.getSuccessCount();
+        t.errorCount = r.getErrorCount();
+        t.durationMs = r.getDurationMs();
+        t.achievedRate = r.getAchievedRate();
+        t.avgMs = r.getAvgMs();
+        t.p50Ms = r.getP50Ms();
+        t.p95Ms = r.getP95Ms();
+        t.p99Ms = r.getP99Ms();
+        t.result = r;
+        return t;
+    }
+
+    static TargetResult failed(String name, String status, String message) {
+        TargetResult t = new TargetResult();
+        t.name = name;
+        t.status = status;
+        t.message = message;
+        return t;
+    }
+
+    void compareWith(TargetResult baseline) {
+        throughputRatio = baseline.achievedRate > 0 ? achievedRate / baseline.achievedRate : null;
+        p50DeltaMs = p50Ms - baseline.p50Ms;
+        p99DeltaMs = p99Ms - baseline.p99Ms;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public long getSuccessCount() { return successCount; }
+    public void setSuccessCount(long successCount) { this.successCount = successCount; }
+
+    public long getErrorCount() { return errorCount; }
+    public void setErrorCount(long errorCount) { this.errorCount = errorCount; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public double getAchievedRate() { return achievedRate; }
+    public void setAchievedRate(double achievedRate) { this.achievedRate = achievedRate; }
+
+    public double getAvgMs() { return avgMs; }
+    public void setAvgMs(double avgMs) { this.avgMs = avgMs; }
+
+    public double getP50Ms() { return p50Ms; }
+    public void setP50Ms(double p50Ms) { this.p50Ms = p50Ms; }
+
+    public double getP95Ms() { return p95Ms; }
+    public void setP95Ms(double p95Ms) { this.p95Ms = p95Ms; }
+
+    public double getP99Ms() { return p99Ms; }
+    public void setP99Ms(double p99Ms) { this.p99Ms = p99Ms; }
+
+    public Double getThroughputRatio() { return throughputRatio; }
+    public void setThroughputRatio(Double throughputRatio) { this.throughputRatio = throughputRatio; }
+
+    public Double getP50DeltaMs() { return p50DeltaMs; }
+    public void setP50DeltaMs(Double p50DeltaMs) { this.p50DeltaMs = p50DeltaMs; }
+
+    public Double getP99DeltaMs() { return p99DeltaMs; }
+    public void setP99DeltaMs(Double p99DeltaMs) { this.p99DeltaMs = p99DeltaMs; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public StressResult getResult() { return result; }
+    public void setResult(StressResult result) { this.result = result; }
+}
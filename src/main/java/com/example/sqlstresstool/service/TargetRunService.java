@@ -0,0 +1,401 @@
+package com.example.sqlstresstool.service;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Named database targets beside the primary DataSource, e.g. a read replica ({@code applicationIntent=ReadOnly}),
+ * a geo-replica or a candidate service tier. Each target gets its own HikariCP pool, built on first use with
+ * the primary pool's settings and closed again once it has been idle for a while. A target logs in with its own
+ * credentials; it inherits the primary's only when it points at the same server, so a URL naming some other
+ * host never receives them.
+ * A multi-target run executes the same request against each selected target, concurrently or back to back,
+ * and reports every target next to the first one.
+ */
+@Service
+public class TargetRunService {
+
+    public static final String PRIMARY = "primary";
+    private static final long IDLE_CHECK_SECONDS = 30;
+    private static final int MAX_ERROR_SAMPLES = 5;
+    // Subprotocol and host[\instance][:port] of a JDBC URL
+    private static final Pattern SERVER = Pattern.compile("^jdbc:([a-z0-9]+)://([^;/?]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SERVER_PROPERTY = Pattern.compile(
+            "[;&?]\\s*(serverName|server|address|addr|networkAddress|port|portNumber|instanceName)\\s*=",
+            Pattern.CASE_INSENSITIVE);
+
+    private final DataSource primaryDataSource;
+    private final SqlRunnerService primaryRunner;
+    private final MeterRegistry meterRegistry;
+    private final long idleNanos;
+    private final Map<String, Target> targets = new LinkedHashMap<>();
+    private final ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "stress-target-reaper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final class Target {
+        final String name;
+        final String url;
+        final String username;
+        final String password;
+        HikariDataSource pool;
+        SqlRunnerService runner;
+        int leases;
+        long lastUsedNanos;
+
+        Target(String name, String url, String username, String password) {
+            this.name = name;
+            this.url = url;
+            this.username = username;
+            this.password = password;
+        }
+    }
+
+    public TargetRunService(@Value("${stress.targets:}") String targetList,
+                            @Value("${stress.target-idle-minutes:10}") long idleMinutes,
+                            DataSource dataSource, SqlRunnerService sqlRunnerService, MeterRegistry meterRegistry) {
+        this.primaryDataSource = dataSource;
+        this.primaryRunner = sqlRunnerService;
+        this.meterRegistry = meterRegistry;
+        this.idleNanos = TimeUnit.MINUTES.toNanos(Math.max(1, idleMinutes));
+        // name=jdbcUrl entries separated by '|', since JDBC URLs themselves contain ';' and '='
+        for (String entry : targetList.split("\\|")) {
+            if (entry.isBlank()) continue;
+            int eq = entry.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Target '" + entry.trim() + "' must be name=jdbcUrl");
+            Target t = newTarget(entry.substring(0, eq), entry.substring(eq + 1), null, null);
+            targets.put(t.name, t);
+        }
+        reaper.scheduleWithFixedDelay(this::closeIdlePools, IDLE_CHECK_SECONDS, IDLE_CHECK_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public synchronized List<TargetInfo> getTargets() {
+        List<TargetInfo> list = new ArrayList<>();
+        TargetInfo primary = new TargetInfo();
+        primary.setName(PRIMARY);
+        primary.setPrimary(true);
+        if (primaryDataSource instanceof HikariDataSource hikari) {
+            primary.setUrl(maskPassword(hikari.getJdbcUrl()));
+            describePool(primary, hikari);
+        }
+        list.add(primary);
+        for (Target t : targets.values()) {
+            TargetInfo info = new TargetInfo();
+            info.setName(t.name);
+            info.setUrl(maskPassword(t.url));
+            if (t.pool != null) describePool(info, t.pool);
+            list.add(info);
+        }
+        return list;
+    }
+
+    private static void describePool(TargetInfo info, HikariDataSource hikari) {
+        info.setMaximumPoolSize(hikari.getMaximumPoolSize());
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) return;
+        info.setPoolOpen(true);
+        info.setActiveConnections(pool.getActiveConnections());
+        info.setIdleConnections(pool.getIdleConnections());
+    }
+
+    /** Username and password may be blank: the URL then carries them, or the target is on the primary's server. */
+    public synchronized String addTarget(String name, String url, String username, String password) {
+        Target t = newTarget(name, url, username, password);
+        Target existing = targets.get(t.name);
+        if (existing != null && existing.leases > 0) throw new IllegalStateException("Target '" + t.name + "' is in use by a run");
+        if (existing != null) closePool(existing);
+        targets.put(t.name, t);
+        return t.name;
+    }
+
+    private static Target newTarget(String name, String url, String username, String password) {
+        String n = name.trim();
+        String u = url.trim();
+        if (!n.matches("[A-Za-z0-9_-]{1,32}")) {
+            throw new IllegalArgumentException("Target name must be 1-32 letters, digits, '-' or '_'");
+        }
+        if (n.equalsIgnoreCase(PRIMARY)) throw new IllegalArgumentException("'" + PRIMARY + "' is the application DataSource");
+        if (!u.startsWith("jdbc:")) throw new IllegalArgumentException("Target URL must be a JDBC URL (jdbc:...)");
+        boolean ownUser = username != null && !username.isBlank();
+        return new Target(n, u, ownUser ? username.trim() : null, ownUser ? password : null);
+    }
+
+    public synchronized boolean removeTarget(String name) {
+        Target t = targets.get(name.trim());
+        if (t == null) return false;
+        if (t.leases > 0) throw new IllegalStateException("Target '" + t.name + "' is in use by a run");
+        closePool(t);
+        targets.remove(t.name);
+        return true;
+    }
+
+    /** Target names of a request; empty when it runs against the primary only. */
+    public static List<String> targetNames(StressRequest req) {
+        List<String> names = new ArrayList<>();
+        if (req.getTargets() == null) return names;
+        for (String part : req.getTargets().split(",")) {
+            String n = part.trim();
+            if (!n.isEmpty() && !names.contains(n)) names.add(n);
+        }
+        return names;
+    }
+
+    public StressResult run(StressRequest req, RunControl control) throws InterruptedException {
+        List<String> names = targetNames(req);
+        if (names.isEmpty()) throw new IllegalArgumentException("No targets selected");
+        if (Disruption.isRequested(req)) {
+            throw new IllegalArgumentException("A disruption cannot be combined with named targets");
+        }
+        List<SqlRunnerService> runners = new ArrayList<>();
+        try {
+            for (String name : names) {
+                runners.add(lease(name));
+            }
+            StressResult[] results = new StressResult[names.size()];
+            String[] failures = new String[names.size()];
+            Instant start = Instant.now();
+            if (req.isTargetsConcurrently()) {
+                List<Thread> threads = new ArrayList<>();
+                for (int i = 0; i < names.size(); i++) {
+                    int index = i;
+                    threads.add(Thread.ofPlatform().daemon().name("stress-target-" + names.get(i))
+                            .start(() -> runTarget(req, control, names.get(index), runners.get(index), results, failures, index)));
+                }
+                for (Thread t : threads) {
+                    t.join();
+                }
+            } else {
+                for (int i = 0; i < names.size() && !control.isCancelled(); i++) {
+                    runTarget(req, control, names.get(i), runners.get(i), results, failures, i);
+                }
+            }
+            return merge(req, control, names, results, failures, start, Instant.now());
+        } finally {
+            for (int i = 0; i < runners.size(); i++) {
+                release(names.get(i));
+            }
+        }
+    }
+
+    private static void runTarget(StressRequest req, RunControl control, String name, SqlRunnerService runner,
+                                  StressResult[] results, String[] failures, int index) {
+        StressRequest sub = req.copy();
+        sub.setTargets("");
+        try {
+            results[index] = runner.run(sub, control.child(name));
+        } catch (RuntimeException e) {
+            failures[index] = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+    }
+
+    private StressResult merge(StressRequest req, RunControl control, List<String> names, StressResult[] results,
+                               String[] failures, Instant start, Instant end) {
+        LatencyHistogram merged = new LatencyHistogram();
+        LatencyHistogram[] phases = {new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram()};
+        List<TargetResult> targetResults = new ArrayList<>();
+        List<String> errorSamples = new ArrayList<>();
+        List<List<String>> sampleRows = new ArrayList<>();
+        List<List<ErrorCount>> errorCodes = new ArrayList<>();
+        TargetResult baseline = null;
+        long success = 0;
+        long errors = 0;
+        long retries = 0;
+        LatencyHistogram commit = new LatencyHistogram();
+        long aborts = 0;
+        long deadlocks = 0;
+        List<String> traceFiles = new ArrayList<>();
+        long traceRecords = 0;
+        long traceDropped = 0;
+
+        for (int i = 0; i < names.size(); i++) {
+            StressResult r = results[i];
+            if (r == null) {
+                String status = failures[i] != null ? RunJobStatus.FAILED.name() : "SKIPPED";
+                String message = failures[i] != null ? failures[i] : "Run was cancelled before this target started";
+                targetResults.add(TargetResult.failed(names.get(i), status, message));
+                if (failures[i] != null && errorSamples.size() < MAX_ERROR_SAMPLES) {
+                    errorSamples.add("Target " + names.get(i) + ": " + failures[i]);
+                }
+                continue;
+            }
+            TargetResult tr = TargetResult.of(names.get(i), r);
+            if (baseline == null) baseline = tr;
+            tr.compareWith(baseline);
+            targetResults.add(tr);
+
+            merged.add(r.getHistogram());
+            for (int p = 0; p < phases.length; p++) {
+                phases[p].add(r.getPhases().get(p).getHistogram());
+            }
+            success += r.getSuccessCount();
+            errors += r.getErrorCount();
+            retries += r.getRetries();
+            if (r.getTraceFiles() != null) {
+                traceFiles.addAll(r.getTraceFiles());
+                traceRecords += r.getTraceRecords();
+                traceDropped += r.getTraceDropped();
+                if (r.getTraceError() != null && errorSamples.size() < MAX_ERROR_SAMPLES) {
+                    errorSamples.add("[" + names.get(i) + "] Trace: " + r.getTraceError());
+                }
+            }
+            if (r.getCommit() != null) {
+                commit.add(r.getCommit().getHistogram());
+                aborts += r.getAborts();
+                deadlocks += r.getDeadlocks();
+            }
+            errorCodes.add(r.getErrorCodes());
+            for (String e : r.getErrorSamples()) {
+                if (errorSamples.size() < MAX_ERROR_SAMPLES) errorSamples.add("[" + names.get(i) + "] " + e);
+            }
+            if (sampleRows.isEmpty()) sampleRows.addAll(r.getSampleRows());
+        }
+        if (baseline == null) {
+            throw new IllegalStateException("All targets failed: " + String.join("; ", errorSamples));
+        }
+
+        // Concurrent targets add up; back to back, the rate is over the whole run
+        long durationMs = Duration.between(start, end).toMillis();
+        StressResult res = new StressResult();
+        res.setTotalIterations(success + errors);
+        res.setCancelled(control.isCancelled());
+        res.setConcurrency(Math.max(1, req.getConcurrency()));
+        res.setDurationMs(durationMs);
+        res.setStartTime(DateTimeFormatter.ISO_INSTANT.format(start));
+        res.setFinishTime(DateTimeFormatter.ISO_INSTANT.format(end));
+        res.setSuccessCount(success);
+        res.setErrorCount(errors);
+        SqlRunnerService.applyLatencyStats(res, merged);
+        res.setEngine(req.getEngine() == null ? EngineType.PLATFORM : req.getEngine());
+        res.setLoadMode(req.getLoadMode());
+        res.setAchievedRate(durationMs > 0 ? (success + errors) * 1000.0 / durationMs : 0);
+        res.setPhases(PhaseLatency.withShares(List.of(
+                PhaseLatency.of(PhaseLatency.ACQUIRE, phases[0]),
+                PhaseLatency.of(PhaseLatency.EXECUTE, phases[1]),
+                PhaseLatency.of(PhaseLatency.FETCH, phases[2]))));
+        res.setTargets(targetResults);
+        if (!traceFiles.isEmpty()) {
+            res.setTraceFiles(traceFiles);
+            res.setTraceRecords(traceRecords);
+            res.setTraceDropped(traceDropped);
+        }
+        if (req.getTransactionSize() > 0) {
+            res.setTransactionSize(req.getTransactionSize());
+            res.setIsolationLevel(req.getIsolationLevel());
+            SqlRunnerService.applyTransactionStats(res, PhaseLatency.of(PhaseLatency.COMMIT, commit), aborts, deadlocks, durationMs);
+        }
+        res.setErrorCodes(ErrorCount.merge(errorCodes));
+        res.setRetries(retries);
+        res.setErrorSamples(errorSamples);
+        res.setSampleRows(sampleRows);
+        return res;
+    }
+
+    private synchronized SqlRunnerService lease(String name) {
+        if (name.equalsIgnoreCase(PRIMARY)) return primaryRunner;
+        Target t = targets.get(name);
+        if (t == null) throw new IllegalArgumentException("Unknown target '" + name + "'");
+        if (t.pool == null) {
+            t.pool = new HikariDataSource(poolConfig(t));
+            t.runner = new SqlRunnerService(t.pool, meterRegistry, primaryRunner.getCsvDirectory());
+        }
+        t.leases++;
+        return t.runner;
+    }
+
+    private synchronized void release(String name) {
+        Target t = targets.get(name);
+        if (t == null) return;
+        t.leases--;
+        t.lastUsedNanos = System.nanoTime();
+    }
+
+    // Same pool settings as the primary. Credentials are the target's own, the URL's, or the primary's when
+    // the target is on the primary's server; otherwise none, e.g. for integrated or Entra ID authentication.
+    private HikariConfig poolConfig(Target t) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("StressPool-" + t.name);
+        config.setJdbcUrl(t.url);
+        config.setInitializationFailTimeout(-1);
+        if (t.username != null) {
+            config.setUsername(t.username);
+            config.setPassword(t.password);
+        }
+        if (primaryDataSource instanceof HikariDataSource primary) {
+            if (t.username == null && !t.url.toLowerCase(Locale.ROOT).matches(".*[;:]user(name)?=.*")
+                    && sameServer(t.url, primary.getJdbcUrl())) {
+                config.setUsername(primary.getUsername());
+                config.setPassword(primary.getPassword());
+            }
+            config.setMaximumPoolSize(primary.getMaximumPoolSize());
+            config.setMinimumIdle(primary.getMinimumIdle());
+            config.setConnectionTimeout(primary.getConnectionTimeout());
+            config.setValidationTimeout(primary.getValidationTimeout());
+            config.setIdleTimeout(primary.getIdleTimeout());
+            config.setMaxLifetime(primary.getMaxLifetime());
+            config.setKeepaliveTime(primary.getKeepaliveTime());
+        }
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return config;
+    }
+
+    private static boolean sameServer(String url, String primaryUrl) {
+        String server = serverOf(url);
+        return server != null && primaryUrl != null && server.equals(serverOf(primaryUrl));
+    }
+
+    // SQL Server's port defaults to 1433, so "srv" and "srv:1433" are the same server. A URL that also names
+    // the server in its properties has no single answer and never matches.
+    private static String serverOf(String jdbcUrl) {
+        Matcher m = SERVER.matcher(jdbcUrl);
+        if (!m.find() || SERVER_PROPERTY.matcher(jdbcUrl).find()) return null;
+        String server = m.group(2).toLowerCase(Locale.ROOT);
+        return m.group(1).equalsIgnoreCase("sqlserver") && !server.contains(":") ? server + ":1433" : server;
+    }
+
+    private synchronized void closeIdlePools() {
+        long now = System.nanoTime();
+        for (Target t : targets.values()) {
+            if (t.pool != null && t.leases == 0 && now - t.lastUsedNanos > idleNanos) closePool(t);
+        }
+    }
+
+    private static void closePool(Target t) {
+        if (t.pool == null) return;
+        t.runner.closeMeters();
+        t.pool.close();
+        t.pool = null;
+        t.runner = null;
+    }
+
+    private static String maskPassword(String jdbcUrl) {
+        return jdbcUrl == null ? null : jdbcUrl.replaceAll("(?i)password=([^;]+)", "password=***");
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        reaper.shutdownNow();
+        targets.values().forEach(TargetRunService::closePool);
+    }
+}
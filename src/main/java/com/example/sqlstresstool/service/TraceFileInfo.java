@@ -0,0 +1,21 @@
+package com.example.sqlstresstool.service;
+
+/** A trace file on disk, as listed by the trace API. */
+public class TraceFileInfo {
+    private String name;
+    private long sizeBytes;
+    private long records;
+    private String modified;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(long sizeBytes) { this.sizeBytes = sizeBytes; }
+
+    public long getRecords() { return records; }
+    public void setRecords(long records) { this.records = records; }
+
+    public String getModified() { return modified; }
+    public void setModified(String modified) { this.modified = modified; }
+}
@@ -0,0 +1,106 @@
+package com.example.sqlstresstool.service;
+
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Converts a {@link TraceWriter} file to CSV with a header row and one typed column per field, ready for
+ * pandas, DuckDB or a Parquet conversion. Also runs standalone, needing nothing but the compiled classes:
+ * {@code java -cp target/classes com.example.sqlstresstool.service.TraceReader run.trace run.csv}
+ */
+public final class TraceReader {
+
+    static final String CSV_HEADER = "timestamp,offset_ms,worker,statement,latency_ms,acquire_ms,execute_ms,fetch_ms,status";
+    private static final int RECORDS_PER_READ = 4096;
+
+    private TraceReader() {
+    }
+
+    public static void toCsv(InputStream in, OutputStream out) throws IOException {
+        ByteBuffer fixed = read(in, TraceWriter.MAGIC.length + 4 + 4 + 8 + 2);
+        byte[] magic = new byte[TraceWriter.MAGIC.length];
+        fixed.get(magic);
+        if (!Arrays.equals(magic, TraceWriter.MAGIC)) throw new IOException("Not a trace file");
+        int version = fixed.getInt();
+        int recordBytes = fixed.getInt();
+        if (version != TraceWriter.VERSION || recordBytes != TraceWriter.RECORD_BYTES) {
+            throw new IOException("Unsupported trace version " + version + " with " + recordBytes + "-byte records");
+        }
+        long startEpochMs = fixed.getLong();
+        String[] statements = new String[fixed.getShort()];
+        for (int i = 0; i < statements.length; i++) {
+            int length = read(in, 2).getShort();
+            statements[i] = new String(in.readNBytes(length), StandardCharsets.UTF_8);
+        }
+
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        w.write(CSV_HEADER);
+        w.write('\n');
+        byte[] chunk = new byte[RECORDS_PER_READ * recordBytes];
+        ByteBuffer b = ByteBuffer.wrap(chunk).order(ByteOrder.LITTLE_ENDIAN);
+        StringBuilder row = new StringBuilder(160);
+        for (int n = in.readNBytes(chunk, 0, chunk.length); n > 0; n = in.readNBytes(chunk, 0, chunk.length)) {
+            b.clear().limit(n - n % recordBytes);
+            while (b.hasRemaining()) {
+                long offsetNanos = b.getLong();
+                int latency = b.getInt();
+                int acquire = b.getInt();
+                int execute = b.getInt();
+                int fetch = b.getInt();
+                int status = b.getInt();
+                short statement = b.getShort();
+                char worker = b.getChar();
+                row.setLength(0);
+                row.append(Instant.ofEpochMilli(startEpochMs).plusNanos(offsetNanos)).append(',')
+                        .append(offsetNanos / 1_000_000.0).append(',')
+                        .append((int) worker).append(',')
+                        .append(statement >= 0 && statement < statements.length ? statements[statement] : "transaction").append(',');
+                appendMs(row, latency).append(',');
+                appendMs(row, acquire).append(',');
+                appendMs(row, execute).append(',');
+                appendMs(row, fetch).append(',');
+                row.append(status).append('\n');
+                w.append(row);
+            }
+            if (n < chunk.length) break;
+        }
+        w.flush();
+    }
+
+    private static StringBuilder appendMs(StringBuilder row, int micros) {
+        int fraction = micros % 1000;
+        row.append(micros / 1000).append('.');
+        if (fraction < 100) row.append('0');
+        if (fraction < 10) row.append('0');
+        return row.append(fraction);
+    }
+
+    private static ByteBuffer read(InputStream in, int bytes) throws IOException {
+        byte[] data = in.readNBytes(bytes);
+        if (data.length < bytes) throw new EOFException("Trace file is truncated");
+        return ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: TraceReader <file.trace> [file.csv]");
+            System.exit(2);
+        }
+        try (InputStream in = Files.newInputStream(Path.of(args[0]));
+             OutputStream out = args.length > 1 ? Files.newOutputStream(Path.of(args[1])) : System.out) {
+            toCsv(in, out);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.sqlstresstool.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * The directory runs write their traces to. Files are named after the run id (target runs add the target
+ * name), and only such names are resolved, so a request cannot reach outside the directory.
+ */
+@Service
+public class TraceService {
+
+    private static final String NAME_PATTERN = "[A-Za-z0-9_-]{1,80}\\" + TraceWriter.EXTENSION;
+
+    private final Path directory;
+
+    public TraceService(@Value("${stress.trace.dir:data/traces}") String directory) {
+        this.directory = Path.of(directory);
+    }
+
+    public Path getDirectory() { return directory; }
+
+    /** Trace files, newest first; with a run id only that run's (including its targets'). */
+    public List<TraceFileInfo> list(String runId) {
+        if (!Files.isDirectory(directory)) return List.of();
+        List<TraceFileInfo> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path p : (Iterable<Path>) paths::iterator) {
+                String name = p.getFileName().toString();
+                if (!name.matches(NAME_PATTERN)) continue;
+                if (runId != null && !name.equals(runId + TraceWriter.EXTENSION) && !name.startsWith(runId + "-")) continue;
+                TraceFileInfo info = new TraceFileInfo();
+                info.setName(name);
+                info.setSizeBytes(Files.size(p));
+                info.setRecords(Math.max(0, (info.getSizeBytes() - headerBytes(p)) / TraceWriter.RECORD_BYTES));
+                info.setModified(Files.getLastModifiedTime(p).toInstant().toString());
+                files.add(info);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        files.sort(Comparator.comparing(TraceFileInfo::getModified).reversed());
+        return files;
+    }
+
+    /** The file for a listed name, or null when the name is not a trace file or does not exist. */
+    public Path resolve(String name) {
+        if (name == null || !name.matches(NAME_PATTERN)) return null;
+        Path p = directory.resolve(name);
+        return Files.isRegularFile(p) ? p : null;
+    }
+
+    public boolean delete(String name) throws IOException {
+        Path p = resolve(name);
+        return p != null && Files.deleteIfExists(p);
+    }
+
+    // Fixed header fields plus the statement names; the records follow
+    private static long headerBytes(Path p) throws IOException {
+        try (var in = Files.newInputStream(p)) {
+            int fixed = TraceWriter.MAGIC.length + 4 + 4 + 8;
+            if (in.skip(fixed) < fixed) return 0;
+            byte[] count = in.readNBytes(2);
+            if (count.length < 2) return 0;
+            long bytes = fixed + 2;
+            for (int i = 0, n = (count[0] & 0xff) | (count[1] & 0xff) << 8; i < n; i++) {
+                byte[] length = in.readNBytes(2);
+                if (length.length < 2) return bytes;
+                int l = (length[0] & 0xff) | (length[1] & 0xff) << 8;
+                bytes += 2 + in.skip(l);
+            }
+            return bytes;
+        }
+    }
+}
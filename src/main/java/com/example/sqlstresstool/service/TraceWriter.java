@@ -0,0 +1,207 @@
+package com.example.sqlstresstool.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation trace of a run, for analysis after it: latency over time, or spikes that line up with
+ * maintenance or log backups. Little-endian, so it maps directly onto a numpy/Arrow struct:
+ * <pre>
+ * header   "SQLTRACE", int version, int record size, long start (epoch ms),
+ *          short statement count, then per statement a short UTF-8 length and the name
+ * record   long start offset (ns from the trace start), int latency, int acquire, int execute, int fetch (µs),
+ *          int status, short statement (-1 for a transaction), unsigned short worker slot
+ * </pre>
+ * Status is 0 for success, otherwise the SQL error number, -1 for a failure that was not a SQLException and
+ * -2 for a SQLException without a number (e.g. a driver-side timeout). Phases add up over retries and over
+ * the statements of a transaction.
+ * <p>
+ * Each worker slot fills its own 64 KB buffer without locking. Full buffers go to a writer thread that
+ * appends them with a FileChannel and hands them back. When the writer falls behind and no spare buffer is
+ * left, records are dropped and counted rather than making the workers wait.
+ */
+public final class TraceWriter {
+
+    public static final String EXTENSION = ".trace";
+    static final byte[] MAGIC = "SQLTRACE".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int RECORD_BYTES = 32;
+    static final int NOT_SQL = -1;
+    static final int NO_ERROR_NUMBER = -2;
+
+    private static final int RECORDS_PER_BUFFER = 2048;
+    private static final int SPARE_BUFFERS = 16;
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long startNanos = System.nanoTime();
+    private final BlockingQueue<ByteBuffer> full = new LinkedBlockingQueue<>();
+    private final BlockingQueue<ByteBuffer> free = new LinkedBlockingQueue<>();
+    private final AtomicInteger allocated = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile Slot[] slots = new Slot[0];
+    private volatile IOException failure;
+    private volatile long written;
+
+    // Owned by one worker slot: its buffer and the phases of the operation in progress
+    private static final class Slot {
+        ByteBuffer buffer;
+        final long[] phases = new long[3];
+    }
+
+    private TraceWriter(Path file, List<String> statements) throws IOException {
+        this.file = file;
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        List<byte[]> names = new ArrayList<>();
+        int headerBytes = MAGIC.length + 4 + 4 + 8 + 2;
+        for (String s : statements) {
+            byte[] name = s.getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            headerBytes += 2 + name.length;
+        }
+        ByteBuffer header = ByteBuffer.allocate(headerBytes).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC).putInt(VERSION).putInt(RECORD_BYTES).putLong(System.currentTimeMillis())
+                .putShort((short) names.size());
+        for (byte[] name : names) {
+            header.putShort((short) name.length).put(name);
+        }
+        header.flip();
+        while (header.hasRemaining()) channel.write(header);
+        this.writer = new Thread(this::writeLoop, "trace-writer-" + file.getFileName());
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static TraceWriter open(Path file, Workload workload) {
+        List<String> statements = new ArrayList<>();
+        for (int i = 0; i < workload.size(); i++) {
+            statements.add(workload.getName(i));
+        }
+        try {
+            return new TraceWriter(file, statements);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create trace file " + file, e);
+        }
+    }
+
+    /** Makes room for the given number of worker slots; called before workers are dispatched. */
+    public void ensureSlots(int workerSlots) {
+        Slot[] current = slots;
+        if (current.length >= workerSlots) return;
+        Slot[] grown = new Slot[workerSlots];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        for (int i = current.length; i < workerSlots; i++) {
+            grown[i] = new Slot();
+        }
+        slots = grown;
+    }
+
+    /** Adds phase time (0 acquire, 1 execute, 2 fetch) to the operation the slot is running. */
+    void phase(int workerSlot, int phase, long nanos) {
+        slots[workerSlot].phases[phase] += nanos;
+    }
+
+    public void record(int workerSlot, long startNanos, long latencyNanos, int statement, int status) {
+        Slot s = slots[workerSlot];
+        long[] p = s.phases;
+        ByteBuffer b = s.buffer;
+        if (b == null) b = s.buffer = take();
+        if (b == null) {
+            dropped.increment();
+        } else {
+            b.putLong(startNanos - this.startNanos)
+                    .putInt(micros(latencyNanos)).putInt(micros(p[0])).putInt(micros(p[1])).putInt(micros(p[2]))
+                    .putInt(status).putShort((short) statement).putChar((char) workerSlot);
+            if (!b.hasRemaining()) {
+                full.add(b.flip());
+                s.buffer = null;
+            }
+        }
+        p[0] = 0;
+        p[1] = 0;
+        p[2] = 0;
+    }
+
+    public static int status(Throwable failure) {
+        int code = SqlErrors.errorCode(failure);
+        if (code == -1) return NOT_SQL;
+        return code == 0 ? NO_ERROR_NUMBER : code;
+    }
+
+    private ByteBuffer take() {
+        ByteBuffer b = free.poll();
+        if (b != null) return b;
+        if (allocated.incrementAndGet() > slots.length + SPARE_BUFFERS) {
+            allocated.decrementAndGet();
+            return null;
+        }
+        return ByteBuffer.allocate(RECORDS_PER_BUFFER * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int micros(long nanos) {
+        return (int) Math.min(Integer.MAX_VALUE, nanos / 1000);
+    }
+
+    private void writeLoop() {
+        try {
+            for (ByteBuffer b = full.take(); b != END; b = full.take()) {
+                int records = b.remaining() / RECORD_BYTES;
+                if (failure == null) {
+                    try {
+                        while (b.hasRemaining()) channel.write(b);
+                    } catch (IOException e) {
+                        failure = e;
+                    }
+                }
+                // After a write failure the rest of the trace is counted as dropped
+                int done = b.position() / RECORD_BYTES;
+                written += done;
+                dropped.add(records - done);
+                free.add(b.clear());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Flushes the partly filled buffers once the workers are done, closes the file and reports it on the result. */
+    public void finish(StressResult res) {
+        for (Slot s : slots) {
+            if (s.buffer != null && s.buffer.position() > 0) full.add(s.buffer.flip());
+            s.buffer = null;
+        }
+        full.add(END);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            if (failure == null) failure = e;
+        }
+        if (res == null) return;
+        res.setTraceFiles(List.of(file.getFileName().toString()));
+        res.setTraceRecords(written);
+        res.setTraceDropped(dropped.sum());
+        if (failure != null) res.setTraceError(failure.getMessage());
+    }
+}
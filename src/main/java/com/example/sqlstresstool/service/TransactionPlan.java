@@ -0,0 +1,41 @@
+package com.example.sqlstresstool.service;
+
+/**
+ * Transaction mode of a run: every operation is one explicit transaction of a fixed number of statements,
+ * each picked from the workload, at the chosen isolation level, followed by a commit.
+ */
+public final class TransactionPlan {
+
+    static final int MAX_SIZE = 1000;
+
+    private final Workload workload;
+    private final int size;
+    private final IsolationLevel isolation;
+
+    private TransactionPlan(Workload workload, int size, IsolationLevel isolation) {
+        this.workload = workload;
+        this.size = size;
+        this.isolation = isolation;
+    }
+
+    /** The request's transaction plan, or null when it runs every statement in auto-commit. */
+    public static TransactionPlan from(StressRequest req, Workload workload) {
+        int size = req.getTransactionSize();
+        if (size <= 0) return null;
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_SIZE + " statements per transaction are allowed");
+        }
+        if (workload.getBatchPlan() != null) {
+            throw new IllegalArgumentException("Transaction mode cannot be combined with batch statements; "
+                    + "use batches per commit instead");
+        }
+        IsolationLevel isolation = req.getIsolationLevel() == null ? IsolationLevel.READ_COMMITTED : req.getIsolationLevel();
+        return new TransactionPlan(workload, size, isolation);
+    }
+
+    public Workload getWorkload() { return workload; }
+
+    public int getSize() { return size; }
+
+    public IsolationLevel getIsolation() { return isolation; }
+}
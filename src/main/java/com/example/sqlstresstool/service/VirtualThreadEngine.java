@@ -0,0 +1,67 @@
+package com.example.sqlstresstool.service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * One virtual thread per task, with a semaphore capping how many run at once.
+ * A task holding a permit also claims a free worker slot, so per-slot state is never shared.
+ */
+public class VirtualThreadEngine implements ExecutionEngine {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final AtomicIntegerArray slotsInUse;
+
+    public VirtualThreadEngine(int concurrency) {
+        this.permits = new Semaphore(concurrency);
+        this.slotsInUse = new AtomicIntegerArray(concurrency);
+    }
+
+    @Override
+    public EngineType getType() { return EngineType.VIRTUAL; }
+
+    @Override
+    public int getPeakPlatformThreads() { return 0; }
+
+    @Override
+    public void submit(WorkerTask task) throws InterruptedException {
+        permits.acquire();
+        try {
+            executor.execute(() -> {
+                int slot = claimSlot();
+                try {
+                    task.run(slot);
+                } finally {
+                    slotsInUse.set(slot, 0);
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    private int claimSlot() {
+        // Holding a permit guarantees at least one slot is free
+        int n = slotsInUse.length();
+        int start = (int) (Thread.currentThread().threadId() % n);
+        while (true) {
+            for (int i = 0; i < n; i++) {
+                int slot = (start + i) % n;
+                if (slotsInUse.get(slot) == 0 && slotsInUse.compareAndSet(slot, 0, 1)) {
+                    return slot;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
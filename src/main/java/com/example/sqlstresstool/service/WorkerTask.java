@@ -0,0 +1,10 @@
+package com.example.sqlstresstool.service;
+
+/**
+ * A unit of work run by an {@link ExecutionEngine}. The slot identifies which of the
+ * {@code concurrency} workers is running it, so per-worker state can be kept in plain arrays.
+ */
+@FunctionalInterface
+public interface WorkerTask {
+    void run(int workerSlot);
+}
@@ -0,0 +1,158 @@
+package com.example.sqlstresstool.service;
+
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A weighted mix of named statements. Defined in YAML or JSON (JSON is valid YAML):
+ * <pre>
+ * statements:
+ *   - name: point-read
+ *     weight: 70
+ *     sql: SELECT * FROM orders WHERE id = ?
+ *     resultMode: SCALAR
+ *     parameters: [ "zipf:1:100000:1.1" ]
+ *   - name: bump-qty
+ *     weight: 10
+ *     sql: UPDATE orders SET qty = qty + 1 WHERE id = ?
+ *     parameters: random:1:100000
+ * </pre>
+ * Keys a statement leaves out fall back to the request's settings. A statement with parameters
+ * defaults to prepared mode. Picking is a binary search over cumulative weights with a
+ * thread-local random, so workers never synchronize to choose a statement.
+ */
+public final class Workload {
+
+    private static final Set<String> KEYS = Set.of("name", "weight", "sql", "resultMode", "maxRows",
+            "statementMode", "parameters", "batchSize", "batchesPerCommit");
+
+    private final String[] names;
+    private final double[] weights;
+    private final StatementPlan[] plans;
+    private final double[] cumulative;
+
+    private Workload(List<String> names, List<Double> weights, List<StatementPlan> plans) {
+        this.names = names.toArray(new String[0]);
+        this.plans = plans.toArray(new StatementPlan[0]);
+        this.weights = new double[this.names.length];
+        this.cumulative = new double[this.names.length];
+        double total = weights.stream().mapToDouble(Double::doubleValue).sum();
+        double running = 0;
+        for (int i = 0; i < this.names.length; i++) {
+            this.weights[i] = 100.0 * weights.get(i) / total;
+            running += weights.get(i) / total;
+            cumulative[i] = running;
+        }
+        cumulative[cumulative.length - 1] = 1.0;
+    }
+
+    /** The request's workload definition if it has one, otherwise its single SQL statement. */
+    public static Workload from(StressRequest req, Path csvDirectory) {
+        if (req.getWorkload() == null || req.getWorkload().isBlank()) {
+            return new Workload(List.of("statement"), List.of(1.0), List.of(StatementPlan.from(req, csvDirectory)));
+        }
+        return parse(req.getWorkload(), req, csvDirectory);
+    }
+
+    public static Workload parse(String text, StressRequest defaults, Path csvDirectory) {
+        Object root;
+        try {
+            root = new Yaml(new SafeConstructor(new LoaderOptions())).load(text);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Workload is not valid YAML/JSON: " + e.getMessage(), e);
+        }
+        if (root instanceof Map<?, ?> map) {
+            root = map.get("statements");
+        }
+        if (!(root instanceof List<?> entries) || entries.isEmpty()) {
+            throw new IllegalArgumentException("Workload needs a non-empty 'statements' list");
+        }
+
+        List<String> names = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        List<StatementPlan> plans = new ArrayList<>();
+        for (Object entry : entries) {
+            String label = "#" + (names.size() + 1);
+            if (!(entry instanceof Map<?, ?> def)) {
+                throw new IllegalArgumentException("Workload statement " + label + " must be a mapping");
+            }
+            try {
+                label = def.containsKey("name") ? "'" + def.get("name") + "'" : label;
+                for (Object key : def.keySet()) {
+                    if (!KEYS.contains(String.valueOf(key))) throw new IllegalArgumentException("unknown key '" + key + "'");
+                }
+                String sql = string(def.get("sql"));
+                if (sql == null || sql.isBlank()) throw new IllegalArgumentException("'sql' is required");
+                double weight = def.containsKey("weight") ? Double.parseDouble(string(def.get("weight"))) : 1.0;
+                if (!(weight > 0)) throw new IllegalArgumentException("weight must be positive");
+                String parameters = parameters(def.get("parameters"));
+                StatementMode mode = def.containsKey("statementMode")
+                        ? StatementMode.valueOf(string(def.get("statementMode")).toUpperCase(Locale.ROOT))
+                        : parameters.isBlank() ? defaults.getStatementMode() : StatementMode.PREPARED;
+                ResultMode resultMode = def.containsKey("resultMode")
+                        ? ResultMode.valueOf(string(def.get("resultMode")).toUpperCase(Locale.ROOT))
+                        : defaults.getResultMode();
+
+                plans.add(new StatementPlan(sql.trim(), resultMode, intOr(def.get("maxRows"), defaults.getMaxRows()),
+                        Math.max(1, defaults.getTimeoutSeconds()), mode, ParameterGenerators.parse(parameters, csvDirectory),
+                        defaults.getPrepareMethod(), defaults.getStatementCacheSize(),
+                        intOr(def.get("batchSize"), 0), intOr(def.get("batchesPerCommit"), 0), defaults.isBulkCopy(),
+                        defaults.getFetchSize(), defaults.getResponseBuffering()));
+                names.add(def.containsKey("name") ? string(def.get("name")) : "statement " + (names.size() + 1));
+                weights.add(weight);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid workload statement " + label + ": " + e.getMessage(), e);
+            }
+        }
+        return new Workload(names, weights, plans);
+    }
+
+    public int pick() {
+        if (cumulative.length == 1) return 0;
+        double r = ThreadLocalRandom.current().nextDouble();
+        int i = Arrays.binarySearch(cumulative, r);
+        return i >= 0 ? Math.min(i + 1, cumulative.length - 1) : -i - 1;
+    }
+
+    public int size() { return plans.length; }
+    public boolean isMix() { return plans.length > 1; }
+    public String getName(int i) { return names[i]; }
+    public double getWeightPercent(int i) { return weights[i]; }
+    public StatementPlan getPlan(int i) { return plans[i]; }
+
+    /** First statement running in batch mode, or null. */
+    public StatementPlan getBatchPlan() {
+        for (StatementPlan plan : plans) {
+            if (plan.isBatch()) return plan;
+        }
+        return null;
+    }
+
+    private static String string(Object value) {
+        return value == null ? null : String.valueOf(value);
+    }
+
+    private static int intOr(Object value, int fallback) {
+        return value == null ? fallback : Integer.parseInt(String.valueOf(value));
+    }
+
+    private static String parameters(Object value) {
+        if (value == null) return "";
+        if (value instanceof List<?> list) {
+            StringBuilder sb = new StringBuilder();
+            for (Object spec : list) sb.append(spec).append('\n');
+            return sb.toString();
+        }
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.sqlstresstool.web;
+
+import com.example.sqlstresstool.service.AgentReport;
+import com.example.sqlstresstool.service.AgentRunRequest;
+import com.example.sqlstresstool.service.DistributedRunService;
+import com.example.sqlstresstool.service.RunJob;
+import com.example.sqlstresstool.service.RunJobService;
+import com.example.sqlstresstool.service.StressRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.List;
+import java.util.Map;
+
+/** Agent endpoints (driven by a coordinator) and the coordinator's agent registry. */
+@RestController
+public class DistributedApiController {
+
+    private final RunJobService runJobService;
+    private final DistributedRunService distributedRunService;
+
+    public DistributedApiController(RunJobService runJobService, DistributedRunService distributedRunService) {
+        this.runJobService = runJobService;
+        this.distributedRunService = distributedRunService;
+    }
+
+    @PostMapping("/api/agent/runs")
+    public ResponseEntity<AgentReport> startAgentRun(@RequestBody AgentRunRequest body) {
+        StressRequest request = body.getRequest();
+        if (request == null) return ResponseEntity.badRequest().build();
+        // An agent always runs its share locally
+        request.setDistributed(false);
+        RunJob job = runJobService.submitAgentPart(request, body.getStartAtEpochMs());
+        return ResponseEntity.accepted().body(AgentReport.of(job));
+    }
+
+    /** With since, the report also carries the live snapshots published after the first since of them. */
+    @GetMapping("/api/agent/runs/{id}")
+    public ResponseEntity<AgentReport> agentRun(@PathVariable String id, @RequestParam(required = false) Long since) {
+        RunJob job = runJobService.get(id);
+        if (job == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(since == null ? AgentReport.of(job) : AgentReport.of(job, since));
+    }
+
+    @PostMapping("/api/agent/runs/{id}/cancel")
+    public ResponseEntity<AgentReport> cancelAgentRun(@PathVariable String id) {
+        RunJob job = runJobService.get(id);
+        if (job == null) return ResponseEntity.notFound().build();
+        runJobService.cancel(id);
+        return ResponseEntity.ok(AgentReport.of(job));
+    }
+
+    @GetMapping("/api/coordinator/agents")
+    public List<String> agents() {
+        return distributedRunService.getAgents();
+    }
+
+    @PostMapping("/api/coordinator/agents")
+    public ResponseEntity<List<String>> registerAgent(@RequestBody Map<String, String> body) {
+        try {
+            distributedRunService.addAgent(String.valueOf(body.get("url")));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(distributedRunService.getAgents());
+    }
+
+    @DeleteMapping("/api/coordinator/agents")
+    public List<String> removeAgent(@RequestParam String url) {
+        distributedRunService.removeAgent(url);
+        return distributedRunService.getAgents();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.sqlstresstool.web;
+
+import com.example.sqlstresstool.service.RegressionVerdict;
+import com.example.sqlstresstool.service.RunHistoryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@Controller
+public class HistoryController {
+
+    private final RunHistoryService history;
+    private final String historyFile;
+
+    public HistoryController(RunHistoryService history, @Value("${stress.history.file:data/run-history.jsonl}") String historyFile) {
+        this.history = history;
+        this.historyFile = historyFile;
+    }
+
+    @GetMapping("/history")
+    public String list(Model model) {
+        model.addAttribute("runs", history.list());
+        model.addAttribute("historyFile", historyFile);
+        return "history";
+    }
+
+    @PostMapping("/history/{id}/baseline")
+    public String markBaseline(@PathVariable String id) {
+        history.markBaseline(id);
+        return "redirect:/history";
+    }
+
+    @GetMapping("/history/{id}/compare")
+    public String compare(@PathVariable String id,
+                          @RequestParam(required = false) String baseline,
+                          @RequestParam(required = false) Double tolerance,
+                          Model model) {
+        RegressionVerdict verdict = history.compare(id, baseline, tolerance);
+        if (verdict == null) {
+            model.addAttribute("compareMessage", history.get(id) == null
+                    ? "Run " + id + " is not in the history"
+                    : "No baseline set; mark a run as baseline first");
+        }
+        model.addAttribute("verdict", verdict);
+        return list(model);
+    }
+}
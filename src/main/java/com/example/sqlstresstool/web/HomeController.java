@@ -1,16 +1,23 @@
 package com.example.sqlstresstool.web;
 
+import com.example.sqlstresstool.service.DistributedRunService;
+import com.example.sqlstresstool.service.RunJob;
+import com.example.sqlstresstool.service.RunJobService;
 import com.example.sqlstresstool.service.StressRequest;
-import com.example.sqlstresstool.service.StressResult;
 import com.example.sqlstresstool.service.SqlRunnerService;
+import com.example.sqlstresstool.service.TargetRunService;
 import com.zaxxer.hikari.HikariDataSource;
 import com.zaxxer.hikari.pool.HikariPool;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -21,10 +28,18 @@ import java.util.Map;
 public class HomeController {
 
     private final SqlRunnerService sqlRunnerService;
+    private final RunJobService runJobService;
+    private final DistributedRunService distributedRunService;
+    private final TargetRunService targetRunService;
     private final DataSource dataSource;
 
-    public HomeController(SqlRunnerService sqlRunnerService, DataSource dataSource) {
+    public HomeController(SqlRunnerService sqlRunnerService, RunJobService runJobService,
+                          DistributedRunService distributedRunService, TargetRunService targetRunService,
+                          DataSource dataSource) {
         this.sqlRunnerService = sqlRunnerService;
+        this.runJobService = runJobService;
+        this.distributedRunService = distributedRunService;
+        this.targetRunService = targetRunService;
         this.dataSource = dataSource;
     }
 
@@ -37,13 +52,36 @@ public class HomeController {
     }
 
     @PostMapping("/run")
-    public String run(@ModelAttribute("request") StressRequest request, Model model) {
-        StressResult result = sqlRunnerService.run(request);
-        model.addAttribute("result", result);
+    public String run(@ModelAttribute("request") StressRequest request,
+                      @RequestParam(value = "workloadFile", required = false) MultipartFile workloadFile) throws IOException {
+        if (workloadFile != null && !workloadFile.isEmpty()) {
+            request.setWorkload(new String(workloadFile.getBytes(), StandardCharsets.UTF_8));
+        }
+        RunJob job = runJobService.submit(request);
+        return "redirect:/jobs/" + job.getId();
+    }
+
+    @GetMapping("/jobs/{id}")
+    public String job(@PathVariable String id, Model model) {
+        RunJob job = runJobService.get(id);
+        if (job == null) {
+            return "redirect:/";
+        }
+        model.addAttribute("request", job.getRequest());
+        model.addAttribute("job", job);
+        if (job.getResult() != null) {
+            model.addAttribute("result", job.getResult());
+        }
         addConnectionInfo(model);
         return "index";
     }
 
+    @PostMapping("/jobs/{id}/cancel")
+    public String cancel(@PathVariable String id) {
+        runJobService.cancel(id);
+        return "redirect:/jobs/" + id;
+    }
+
     @PostMapping("/evict")
     public String evict(Model model) {
         String message = sqlRunnerService.evictIdleConnections();
@@ -78,6 +116,53 @@ public class HomeController {
         return "index";
     }
 
+    @PostMapping("/agents")
+    public String addAgent(@RequestParam String url, Model model) {
+        try {
+            distributedRunService.addAgent(url);
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("agentMessage", e.getMessage());
+        }
+        model.addAttribute("request", StressRequest.defaultRequest());
+        addConnectionInfo(model);
+        testConnection(model);
+        return "index";
+    }
+
+    @PostMapping("/agents/remove")
+    public String removeAgent(@RequestParam String url) {
+        distributedRunService.removeAgent(url);
+        return "redirect:/";
+    }
+
+    @PostMapping("/targets")
+    public String addTarget(@RequestParam String name, @RequestParam String url,
+                            @RequestParam(required = false) String username,
+                            @RequestParam(required = false) String password, Model model) {
+        try {
+            targetRunService.addTarget(name, url, username, password);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            model.addAttribute("targetMessage", e.getMessage());
+        }
+        model.addAttribute("request", StressRequest.defaultRequest());
+        addConnectionInfo(model);
+        testConnection(model);
+        return "index";
+    }
+
+    @PostMapping("/targets/remove")
+    public String removeTarget(@RequestParam String name, Model model) {
+        try {
+            targetRunService.removeTarget(name);
+        } catch (IllegalStateException e) {
+            model.addAttribute("targetMessage", e.getMessage());
+        }
+        model.addAttribute("request", StressRequest.defaultRequest());
+        addConnectionInfo(model);
+        testConnection(model);
+        return "index";
+    }
+
     @PostMapping("/clearResults")
     public String clearResults(@ModelAttribute("request") StressRequest request, Model model) {
         // Preserve the request form values, just don't add result to model
@@ -87,6 +172,8 @@ public class HomeController {
     }
 
     private void addConnectionInfo(Model model) {
+        model.addAttribute("agents", distributedRunService.getAgents());
+        model.addAttribute("targetList", targetRunService.getTargets());
         if (dataSource instanceof HikariDataSource) {
             HikariDataSource hikari = (HikariDataSource) dataSource;
             String jdbcUrl = hikari.getJdbcUrl();
@@ -0,0 +1,54 @@
+package com.example.sqlstresstool.web;
+
+import com.example.sqlstresstool.service.RegressionVerdict;
+import com.example.sqlstresstool.service.RunHistoryService;
+import com.example.sqlstresstool.service.RunRecord;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.List;
+
+@RestController
+public class RunHistoryApiController {
+
+    private final RunHistoryService history;
+
+    public RunHistoryApiController(RunHistoryService history) {
+        this.history = history;
+    }
+
+    @GetMapping("/api/history")
+    public List<RunRecord> list() {
+        return history.list();
+    }
+
+    @GetMapping("/api/history/{id}")
+    public ResponseEntity<RunRecord> get(@PathVariable String id) {
+        RunRecord run = history.get(id);
+        return run == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(run);
+    }
+
+    @PostMapping("/api/history/{id}/baseline")
+    public ResponseEntity<RunRecord> markBaseline(@PathVariable String id) {
+        return history.markBaseline(id) ? ResponseEntity.ok(history.get(id)) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Verdict of a run against the current baseline (or ?baseline=id). With failOnRegression=true a
+     * regression is answered with 409 so a pipeline step can gate on the HTTP status alone.
+     */
+    @GetMapping("/api/history/{id}/verdict")
+    public ResponseEntity<RegressionVerdict> verdict(@PathVariable String id,
+                                                     @RequestParam(required = false) String baseline,
+                                                     @RequestParam(required = false) Double tolerance,
+                                                     @RequestParam(defaultValue = "false") boolean failOnRegression) {
+        RegressionVerdict verdict = history.compare(id, baseline, tolerance);
+        if (verdict == null) return ResponseEntity.notFound().build();
+        return failOnRegression && verdict.isRegression()
+                ? ResponseEntity.status(409).body(verdict)
+                : ResponseEntity.ok(verdict);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.sqlstresstool.web;
+
+import com.example.sqlstresstool.service.LiveSnapshot;
+import com.example.sqlstresstool.service.RunJob;
+import com.example.sqlstresstool.service.RunJobListener;
+import com.example.sqlstresstool.service.RunJobService;
+import com.example.sqlstresstool.service.StressRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+@RestController
+public class RunJobApiController {
+
+    // Snapshots waiting for a slow client; beyond that its oldest ones are dropped
+    private static final int MAX_QUEUED_EVENTS = 64;
+    // Queued after the final event to end the stream
+    private static final SseEmitter.SseEventBuilder COMPLETE = SseEmitter.event();
+
+    private final RunJobService runJobService;
+    private final ObjectMapper mapper;
+
+    public RunJobApiController(RunJobService runJobService, ObjectMapper mapper) {
+        this.runJobService = runJobService;
+        this.mapper = mapper;
+    }
+
+    /** Starts a run from a JSON request; fields left out keep the form defaults. */
+    @PostMapping("/api/jobs")
+    public ResponseEntity<Map<String, Object>> submit(@RequestBody JsonNode body) throws IOException {
+        StressRequest request = mapper.readerForUpdating(StressRequest.defaultRequest()).readValue(body);
+        RunJob job = runJobService.submit(request);
+        return ResponseEntity.accepted().body(summary(job));
+    }
+
+    @GetMapping("/api/jobs")
+    public List<Map<String, Object>> list() {
+        return runJobService.list().stream().map(this::summary).toList();
+    }
+
+    @GetMapping("/api/jobs/{id}")
+    public ResponseEntity<Map<String, Object>> get(@PathVariable String id) {
+        RunJob job = runJobService.get(id);
+        if (job == null) return ResponseEntity.notFound().build();
+        Map<String, Object> body = summary(job);
+        body.put("result", job.getResult());
+        return ResponseEntity.ok(body);
+    }
+
+    @PostMapping("/api/jobs/{id}/cancel")
+    public ResponseEntity<Map<String, Object>> cancel(@PathVariable String id) {
+        RunJob job = runJobService.get(id);
+        if (job == null) return ResponseEntity.notFound().build();
+        runJobService.cancel(id);
+        return ResponseEntity.ok(summary(job));
+    }
+
+    @GetMapping("/jobs/{id}/events")
+    public SseEmitter events(@PathVariable String id) {
+        SseEmitter emitter = new SseEmitter(0L);
+        RunJob job = runJobService.get(id);
+        if (job == null) {
+            emitter.completeWithError(new IllegalArgumentException("Unknown job " + id));
+            return emitter;
+        }
+
+        // The job's listener only queues; each client has its own sender thread, so a slow client
+        // delays and drops only its own events rather than the live stats of every job
+        BlockingQueue<SseEmitter.SseEventBuilder> events = new ArrayBlockingQueue<>(MAX_QUEUED_EVENTS);
+        Thread sender = Thread.ofVirtual().name("sse-" + id).unstarted(() -> {
+            try {
+                while (true) {
+                    SseEmitter.SseEventBuilder event = events.take();
+                    if (event == COMPLETE) {
+                        emitter.complete();
+                        return;
+                    }
+                    emitter.send(event);
+                }
+            } catch (InterruptedException e) {
+                // The client went away
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        RunJobListener listener = new RunJobListener() {
+            @Override
+            public void onSnapshot(LiveSnapshot snapshot) {
+                enqueue(events, SseEmitter.event().name("progress").data(snapshot));
+            }
+
+            @Override
+            public void onFinished(RunJob finished) {
+                enqueue(events, SseEmitter.event().name("done").data(summary(finished)));
+                enqueue(events, COMPLETE);
+            }
+        };
+        emitter.onCompletion(() -> stop(job, listener, sender));
+        emitter.onTimeout(() -> stop(job, listener, sender));
+        emitter.onError(e -> stop(job, listener, sender));
+        sender.start();
+        job.subscribe(listener);
+        return emitter;
+    }
+
+    private static void enqueue(BlockingQueue<SseEmitter.SseEventBuilder> events, SseEmitter.SseEventBuilder event) {
+        while (!events.offer(event)) {
+            events.poll();
+        }
+    }
+
+    private static void stop(RunJob job, RunJobListener listener, Thread sender) {
+        job.unsubscribe(listener);
+        sender.interrupt();
+    }
+
+    private Map<String, Object> summary(RunJob job) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", job.getId());
+        body.put("status", job.getStatus());
+        body.put("submittedAt", job.getSubmittedAt().toString());
+        body.put("finishedAt", job.getFinishedAt() == null ? null : job.getFinishedAt().toString());
+        body.put("failureMessage", job.getFailureMessage());
+        return body;
+    }
+}
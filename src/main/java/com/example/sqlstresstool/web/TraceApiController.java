@@ -0,0 +1,64 @@
+package com.example.sqlstresstool.web;
+
+import com.example.sqlstresstool.service.TraceFileInfo;
+import com.example.sqlstresstool.service.TraceReader;
+import com.example.sqlstresstool.service.TraceService;
+import com.example.sqlstresstool.service.TraceWriter;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@RestController
+public class TraceApiController {
+
+    private final TraceService traceService;
+
+    public TraceApiController(TraceService traceService) {
+        this.traceService = traceService;
+    }
+
+    @GetMapping("/api/traces")
+    public List<TraceFileInfo> list(@RequestParam(required = false) String run) {
+        return traceService.list(run);
+    }
+
+    /** The raw binary trace, or with ?format=csv converted while it streams. */
+    @GetMapping("/api/traces/{name}")
+    public ResponseEntity<StreamingResponseBody> download(@PathVariable String name,
+                                                          @RequestParam(defaultValue = "binary") String format) {
+        Path file = traceService.resolve(name);
+        if (file == null) return ResponseEntity.notFound().build();
+        boolean csv = format.equalsIgnoreCase("csv");
+        String fileName = csv ? name.substring(0, name.length() - TraceWriter.EXTENSION.length()) + ".csv" : name;
+        StreamingResponseBody body = out -> {
+            try (InputStream in = Files.newInputStream(file)) {
+                if (csv) {
+                    TraceReader.toCsv(in, out);
+                } else {
+                    in.transferTo(out);
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    @DeleteMapping("/api/traces/{name}")
+    public ResponseEntity<Void> delete(@PathVariable String name) throws IOException {
+        return traceService.delete(name) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+}
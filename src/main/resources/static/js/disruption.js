@@ -0,0 +1,54 @@
+(function () {
+    var canvas = document.getElementById('disruption-timeline');
+    if (!canvas) return;
+
+    function values(name) {
+        var raw = canvas.getAttribute(name);
+        return raw ? raw.split(',').map(Number) : [];
+    }
+
+    var bucketMs = Number(canvas.getAttribute('data-bucket-ms'));
+    var atMs = Number(canvas.getAttribute('data-at-ms'));
+    var perSecond = 1000 / bucketMs;
+    var lines = [
+        { label: 'ok/s', color: '#0067b8', values: values('data-successes') },
+        { label: 'errors/s', color: '#c0392b', values: values('data-errors') }
+    ];
+    var n = lines[0].values.length;
+    if (n === 0) return;
+
+    var ctx = canvas.getContext('2d');
+    var w = canvas.width, h = canvas.height, pad = 28;
+    var max = 0;
+    lines.forEach(function (l) { l.values.forEach(function (v) { if (v * perSecond > max) max = v * perSecond; }); });
+    if (max === 0) max = 1;
+    function x(i) { return pad + (w - pad - 4) * (n > 1 ? i / (n - 1) : 0); }
+
+    ctx.strokeStyle = '#ddd';
+    ctx.strokeRect(pad, 4, w - pad - 4, h - pad);
+    ctx.fillStyle = '#666';
+    ctx.font = '10px Arial';
+    ctx.fillText(max.toFixed(0), 2, 12);
+    ctx.fillText('0', 2, h - pad);
+    ctx.fillText((n * bucketMs / 1000).toFixed(1) + 's', w - 30, h - 8);
+
+    ctx.strokeStyle = '#999';
+    ctx.setLineDash([4, 4]);
+    ctx.beginPath();
+    ctx.moveTo(x(atMs / bucketMs), 4);
+    ctx.lineTo(x(atMs / bucketMs), h - pad + 4);
+    ctx.stroke();
+    ctx.setLineDash([]);
+
+    lines.forEach(function (l, li) {
+        ctx.strokeStyle = l.color;
+        ctx.beginPath();
+        l.values.forEach(function (v, i) {
+            var y = 4 + (h - pad - 4) * (1 - v * perSecond / max);
+            if (i === 0) ctx.moveTo(x(i), y); else ctx.lineTo(x(i), y);
+        });
+        ctx.stroke();
+        ctx.fillStyle = l.color;
+        ctx.fillText(l.label, pad + 4 + li * 60, h - 8);
+    });
+})();
@@ -0,0 +1,90 @@
+(function () {
+    var panel = document.getElementById('live');
+    if (!panel || !window.EventSource) return;
+
+    var finishedOnLoad = panel.getAttribute('data-finished') === 'true';
+    var maxPoints = 300;
+    var elapsed = [];
+    var series = {
+        throughput: [{ label: 'ops/s', color: '#0067b8', values: [] }],
+        errors: [{ label: 'error %', color: '#c0392b', values: [] }],
+        latency: [
+            { label: 'p50', color: '#27ae60', values: [] },
+            { label: 'p95', color: '#e67e22', values: [] },
+            { label: 'p99', color: '#8e44ad', values: [] }
+        ],
+        pool: [
+            { label: 'active', color: '#0067b8', values: [] },
+            { label: 'idle', color: '#27ae60', values: [] },
+            { label: 'waiting', color: '#c0392b', values: [] }
+        ]
+    };
+
+    function push(arr, v) {
+        arr.push(v);
+        if (arr.length > maxPoints) arr.shift();
+    }
+
+    function draw(canvasId, lines) {
+        var canvas = document.getElementById(canvasId);
+        if (!canvas) return;
+        var ctx = canvas.getContext('2d');
+        var w = canvas.width, h = canvas.height, pad = 28;
+        ctx.clearRect(0, 0, w, h);
+        var max = 0;
+        lines.forEach(function (l) { l.values.forEach(function (v) { if (v > max) max = v; }); });
+        if (max === 0) max = 1;
+        ctx.strokeStyle = '#ddd';
+        ctx.strokeRect(pad, 4, w - pad - 4, h - pad);
+        ctx.fillStyle = '#666';
+        ctx.font = '10px Arial';
+        ctx.fillText(max.toFixed(max < 10 ? 2 : 0), 2, 12);
+        ctx.fillText('0', 2, h - pad);
+        lines.forEach(function (l, li) {
+            ctx.strokeStyle = l.color;
+            ctx.beginPath();
+            l.values.forEach(function (v, i) {
+                var x = pad + (w - pad - 4) * (l.values.length > 1 ? i / (l.values.length - 1) : 0);
+                var y = 4 + (h - pad - 4) * (1 - v / max);
+                if (i === 0) ctx.moveTo(x, y); else ctx.lineTo(x, y);
+            });
+            ctx.stroke();
+            ctx.fillStyle = l.color;
+            ctx.fillText(l.label, pad + 4 + li * 50, h - 8);
+        });
+    }
+
+    function render() {
+        draw('chart-throughput', series.throughput);
+        draw('chart-errors', series.errors);
+        draw('chart-latency', series.latency);
+        draw('chart-pool', series.pool);
+    }
+
+    var source = new EventSource(panel.getAttribute('data-events-url'));
+    source.addEventListener('progress', function (e) {
+        var s = JSON.parse(e.data);
+        push(elapsed, s.elapsedMs);
+        push(series.throughput[0].values, s.opsPerSec);
+        push(series.errors[0].values, s.errorRate * 100);
+        push(series.latency[0].values, s.p50Ms);
+        push(series.latency[1].values, s.p95Ms);
+        push(series.latency[2].values, s.p99Ms);
+        push(series.pool[0].values, s.poolActive);
+        push(series.pool[1].values, s.poolIdle);
+        push(series.pool[2].values, s.poolWaiting);
+        document.getElementById('live-summary').textContent =
+            (s.elapsedMs / 1000).toFixed(0) + 's elapsed · ' + s.completed + ' ok · ' + s.errors + ' errors · ' +
+            s.opsPerSec.toFixed(1) + ' ops/s · p99 ' + s.p99Ms.toFixed(3) + ' ms';
+        render();
+    });
+    source.addEventListener('done', function (e) {
+        source.close();
+        var s = JSON.parse(e.data);
+        document.getElementById('live-status').textContent = s.status;
+        if (!finishedOnLoad) window.location.reload();
+    });
+    source.onerror = function () {
+        source.close();
+    };
+})();